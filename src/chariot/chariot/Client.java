@@ -294,6 +294,10 @@ public interface Client  {
     /// Configure logging levels
     void logging(Consumer<Builders.LoggingBuilder> params);
 
+    /// Metrics of the requests sent by this client, such as the number of requests and reconnects per service,
+    /// and the hits of the caches which are enabled
+    ClientMetrics metrics();
+
     private static Client load(Config config) {
         return config instanceof Config.Auth authConfig
             ? new chariot.internal.impl.ClientAuthImpl(authConfig)
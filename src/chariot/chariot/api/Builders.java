@@ -1,7 +1,9 @@
 package chariot.api;
 
 import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -139,11 +141,28 @@ public interface Builders {
         ConfigBuilder retries(int retries);
 
         /**
-         * Duration to wait after sending a request, until next request can be sent.
+         * Duration to wait after sending a request, until next request can be sent.<br/>
+         * Sets the refill interval of the rate limits of all services, see {@link #rateLimits(Consumer)}.<br/>
          * Default: 1 second
          */
         ConfigBuilder spacing(Duration spacing);
 
+        /**
+         * Number of concurrent requests and streams, to each of the api, explorer, tablebase and engine services.<br/>
+         * Each service has its own lane, so requests to one service don't wait for requests to another.<br/>
+         * Lichess asks clients to only send one request at a time, so consider throttling (status code 429) before increasing it.<br/>
+         * Default: 1 request and 8 streams per service
+         */
+        ConfigBuilder concurrency(Consumer<ConcurrencyBuilder> params);
+
+        /**
+         * Rate limits of the api, explorer, tablebase and engine services.<br/>
+         * Each limit is a token bucket, which allows a burst of requests and then refills one request per interval.<br/>
+         * Requests using different tokens are limited separately.<br/>
+         * Default: a burst of 4 requests, refilled with 1 request per second
+         */
+        ConfigBuilder rateLimits(Consumer<RateLimitBuilder> params);
+
 
         /**
          * Customization of the User-Agent header set in HTTP requests.<br/>
@@ -170,6 +189,87 @@ public interface Builders {
          * See {@link #userAgent(String, boolean)}
          */
         default ConfigBuilder userAgent(String identifier) { return userAgent(identifier, false); }
+
+        /**
+         * Executor used by the underlying HTTP client, for sending requests and handling responses.<br/>
+         * The HTTP client, and its connections, is shared by all clients created from the same configuration.<br/>
+         * Default: a new virtual thread per task
+         */
+        ConfigBuilder executor(Executor executor);
+
+        /**
+         * Number of responses to keep in a client-side cache.<br/>
+         * Responses to GET requests, which carry an {@code ETag} or {@code Last-Modified} header,
+         * are cached and revalidated with the server when requested again,
+         * and a {@code 304 Not Modified} response is served from the cache.<br/>
+         * Requests for different representations, such as JSON and PGN, are cached separately.<br/>
+         * The least recently used response is evicted when the cache is full.<br/>
+         * The hits are counted in the {@code responses} cache of {@link chariot.Client#metrics()}<br/>
+         * Default: 0 (no cache)
+         */
+        ConfigBuilder responseCache(int maxEntries);
+
+        /**
+         * Caches of results which don't change once they exist, such as finished games,<br/>
+         * so repeated lookups don't send any request.<br/>
+         * Each kind of result is cached separately, with its own size and time-to-live.<br/>
+         * The hits are counted in the caches of {@link chariot.Client#metrics()}, named after the kind of result, such as {@code games}<br/>
+         * Default: no caches
+         */
+        ConfigBuilder resultCache(Consumer<ResultCacheBuilder> params);
+
+        /**
+         * File to keep the responses of tablebase and masters database lookups in,
+         * so repeated lookups, also after a restart, don't send any request.<br/>
+         * Lookups in the lichess and player databases of the opening explorer, which change as games are played, are not kept.<br/>
+         * Lookups are keyed by server, FEN and parameters.
+         * When the cached responses exceed {@code maxBytes},
+         * the least recently used responses are evicted and the file is compacted.<br/>
+         * Clients sharing a file must use the same {@code maxBytes}.<br/>
+         * Default: no disk cache
+         */
+        ConfigBuilder diskCache(Path file, long maxBytes);
+
+        /**
+         * Reconnect long-lived streams, such as game and event streams, when their connection ends
+         * or when no data has been received within an idle timeout.<br/>
+         * The streams continue with the events of the new connection, without the replayed events which were already received,
+         * and end when reconnecting fails, or doesn't yield any new events, a number of times in a row.
+         * Game streams end when the game is over.<br/>
+         * The number of reconnects is counted in {@link chariot.Client#metrics()}.<br/>
+         * Default: no reconnect. When enabled: an idle timeout of 30 seconds,
+         * a back-off from 1 second up to 60 seconds and at most 5 attempts
+         */
+        ConfigBuilder reconnect(Consumer<ReconnectBuilder> params);
+
+        /**
+         * See {@link #reconnect(Consumer)}
+         */
+        default ConfigBuilder reconnect() { return reconnect(_ -> {}); }
+
+        /**
+         * Decode the list components of models, such as the clocks and analysis of games,
+         * only when they are accessed - useful when streaming many models and only reading some of their fields.<br/>
+         * Nested models, such as players, are still decoded with their enclosing model.<br/>
+         * A model then holds on to its JSON source until its lists are accessed,
+         * and errors in decoding a list are thrown when accessing the list.<br/>
+         * Default: false
+         */
+        ConfigBuilder lazyLists(boolean lazy);
+
+        /**
+         * See {@link #lazyLists(boolean)}
+         */
+        default ConfigBuilder lazyLists() { return lazyLists(true); }
+
+        /**
+         * The number of following pages to fetch in the background while the results of a page are consumed,
+         * when streaming the results of paged searches, such as of teams, studies and broadcasts.<br/>
+         * The pages are fetched as requests of the {@code api} lane, so its concurrency and rate limit still apply.<br/>
+         * A lookahead of 0 fetches each page when it is needed.<br/>
+         * Default: 1
+         */
+        ConfigBuilder pageLookahead(int pages);
     }
 
     interface ServerBuilder {
@@ -211,6 +311,128 @@ public interface Builders {
         default ServerBuilder engine(String uri) { return engine(URI.create(uri)); }
     }
 
+    interface ConcurrencyBuilder {
+        /**
+         * Concurrency of the api service
+         * @param requests Number of requests which can be in progress at the same time
+         * @param streams Number of streams which can be connecting at the same time
+         */
+        ConcurrencyBuilder api(int requests, int streams);
+
+        /**
+         * Concurrency of the explorer service
+         * @param requests Number of requests which can be in progress at the same time
+         * @param streams Number of streams which can be connecting at the same time
+         */
+        ConcurrencyBuilder explorer(int requests, int streams);
+
+        /**
+         * Concurrency of the tablebase service
+         * @param requests Number of requests which can be in progress at the same time
+         * @param streams Number of streams which can be connecting at the same time
+         */
+        ConcurrencyBuilder tablebase(int requests, int streams);
+
+        /**
+         * Concurrency of the engine service
+         * @param requests Number of requests which can be in progress at the same time
+         * @param streams Number of streams which can be connecting at the same time
+         */
+        ConcurrencyBuilder engine(int requests, int streams);
+
+        /**
+         * Concurrency of all services
+         */
+        default ConcurrencyBuilder all(int requests, int streams) {
+            return api(requests, streams).explorer(requests, streams).tablebase(requests, streams).engine(requests, streams);
+        }
+    }
+
+    interface RateLimitBuilder {
+        /**
+         * Rate limit of the api service
+         * @param burst Number of requests which can be sent without waiting
+         * @param interval Duration until another request can be sent, {@code Duration.ZERO} for no limit
+         */
+        RateLimitBuilder api(int burst, Duration interval);
+
+        /**
+         * Rate limit of the explorer service
+         * @param burst Number of requests which can be sent without waiting
+         * @param interval Duration until another request can be sent, {@code Duration.ZERO} for no limit
+         */
+        RateLimitBuilder explorer(int burst, Duration interval);
+
+        /**
+         * Rate limit of the tablebase service
+         * @param burst Number of requests which can be sent without waiting
+         * @param interval Duration until another request can be sent, {@code Duration.ZERO} for no limit
+         */
+        RateLimitBuilder tablebase(int burst, Duration interval);
+
+        /**
+         * Rate limit of the engine service
+         * @param burst Number of requests which can be sent without waiting
+         * @param interval Duration until another request can be sent, {@code Duration.ZERO} for no limit
+         */
+        RateLimitBuilder engine(int burst, Duration interval);
+
+        /**
+         * Rate limit of all services
+         */
+        default RateLimitBuilder all(int burst, Duration interval) {
+            return api(burst, interval).explorer(burst, interval).tablebase(burst, interval).engine(burst, interval);
+        }
+    }
+
+    interface ResultCacheBuilder {
+        /**
+         * Cache of finished games, by game id
+         * @param maxEntries Number of games to keep, 0 for no cache
+         * @param ttl Duration to keep a game, {@code Duration.ZERO} to keep it until it is evicted
+         */
+        ResultCacheBuilder games(int maxEntries, Duration ttl);
+
+        /**
+         * Cache of the PGNs of Masters games, by game id
+         * @param maxEntries Number of PGNs to keep, 0 for no cache
+         * @param ttl Duration to keep a PGN, {@code Duration.ZERO} to keep it until it is evicted
+         */
+        ResultCacheBuilder mastersPgn(int maxEntries, Duration ttl);
+
+        /**
+         * Cache of FIDE players, by FIDE id
+         * @param maxEntries Number of players to keep, 0 for no cache
+         * @param ttl Duration to keep a player, {@code Duration.ZERO} to keep it until it is evicted
+         */
+        ResultCacheBuilder fidePlayers(int maxEntries, Duration ttl);
+
+        /**
+         * Cache of tablebase lookups, by FEN
+         * @param maxEntries Number of lookups to keep, 0 for no cache
+         * @param ttl Duration to keep a lookup, {@code Duration.ZERO} to keep it until it is evicted
+         */
+        ResultCacheBuilder tablebase(int maxEntries, Duration ttl);
+    }
+
+    interface ReconnectBuilder {
+        /**
+         * Duration without any received data, including keep-alive messages, after which the connection is considered lost
+         */
+        ReconnectBuilder idleTimeout(Duration idleTimeout);
+
+        /**
+         * Waiting time before reconnecting, doubled for each attempt in a row, up to {@code max}.<br/>
+         * A random part of the waiting time is left out, so clients don't all reconnect at the same time.
+         */
+        ReconnectBuilder backOff(Duration initial, Duration max);
+
+        /**
+         * Number of attempts in a row after which the stream ends, 0 for no limit
+         */
+        ReconnectBuilder maxAttempts(int maxAttempts);
+    }
+
     interface LoggingBuilder {
         /**
          * Log level of logger "chariot.request", default warning
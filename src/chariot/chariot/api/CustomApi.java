@@ -1,6 +1,8 @@
 package chariot.api;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -35,10 +37,21 @@ public interface CustomApi {
 
     interface EndpointOne<T> {
         One<T> request(Consumer<Request> request);
+
+        /// Sends the request without blocking the calling thread
+        CompletableFuture<One<T>> requestAsync(Consumer<Request> request);
     }
 
     interface EndpointMany<T> {
         Many<T> request(Consumer<Request> request);
+
+        /// Sends the request without blocking the calling thread
+        CompletableFuture<Many<T>> requestAsync(Consumer<Request> request);
+
+        /// Publishes the entries to a single subscriber, as it requests them.
+        /// The request is sent when the publisher is created,
+        /// a failed request is signalled with `onError`, and cancelling the subscription closes the stream.
+        Flow.Publisher<T> publisher(Consumer<Request> request);
     }
 
     interface Request {
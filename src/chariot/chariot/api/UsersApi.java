@@ -51,7 +51,28 @@ public interface UsersApi extends UsersApiBase {
         default T rank() { return rank(true); }
     }
 
-    interface UsersParams extends ProfileRank<UsersParams> {}
+    /// A batch of user ids, of a lookup split into several requests, which failed to be fetched
+    record BatchFailure(List<String> userIds, int status, String message) {}
+
+    interface Batches<T> {
+        /// Number of batches to fetch concurrently, when the user ids are split into several requests - Default `1`  
+        /// The batches are requests to the `api` service, so they are still subject to the rate limits of the client,
+        /// and at most as many batches are sent at the same time as the concurrency of the `api` lane allows -
+        /// with the default concurrency of 1 request, see {@link chariot.api.Builders.ConfigBuilder#concurrency(java.util.function.Consumer)},
+        /// the batches are sent one at a time, and a parallelism above 1 doesn't fetch them any faster.  
+        /// The results are in the same order as the user ids.
+        T parallel(int parallelism);
+        /// Fetch 4 batches concurrently, see {@link #parallel(int)}
+        default T parallel() { return parallel(4); }
+
+        /// Handler of any batch which failed to be fetched - Default, a failure of the first batch fails the lookup,
+        /// and a failure of a later batch ends the stream of results by throwing an `IllegalStateException`
+        /// naming the failed batch - any batches still in flight are then cancelled.  
+        /// With a handler, each failed batch is passed to the handler and the lookup continues with the next batch.
+        T onBatchFailure(Consumer<BatchFailure> handler);
+    }
+
+    interface UsersParams extends ProfileRank<UsersParams>, Batches<UsersParams> {}
 
     interface UserParams extends ProfileRank<UserParams> {
 
@@ -94,7 +115,7 @@ public interface UsersApi extends UsersApiBase {
         default CrosstableParams matchup() { return matchup(true); }
     }
 
-    interface UserStatusParams {
+    interface UserStatusParams extends Batches<UserStatusParams> {
         /**
          * Whether or not to include game IDs in the result
          */
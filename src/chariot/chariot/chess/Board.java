@@ -63,6 +63,23 @@ public interface Board {
         return FEN.parse(toFEN()).move();
     }
 
+    /// A 64-bit Zobrist hash of the position - the pieces, the side to move, the castling rights,
+    /// and the en passant file when a pawn can capture en passant.
+    /// The move clocks aren't part of it, so positions which are the same have the same key,
+    /// no matter which moves led to them. The key of a position is the same in every run.
+    ///
+    /// Boards of a [BoardProvider] which don't override this method only have a key in the variants of [Position] -
+    /// `standard`, `chess960` and `fromPosition`.
+    ///
+    /// @throws UnsupportedOperationException if the board doesn't override this method and is of another variant
+    default long positionKey() {
+        return switch (variant()) {
+            case "standard", "chess960", "fromPosition" -> Position.of(variant(), toFEN()).positionKey();
+            default -> throw new UnsupportedOperationException(
+                    "No position key of variant %s - %s doesn't provide one".formatted(variant(), getClass().getName()));
+        };
+    }
+
     default Board play(String... moves) {
         return asMoves(moves).stream()
             .gather(Gatherers.fold(() -> this, (board, move) -> board.play(move)))
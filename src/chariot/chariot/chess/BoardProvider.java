@@ -2,7 +2,7 @@ package chariot.chess;
 
 import module java.base;
 
-import chariot.internal.chess.InternalBoardProvider;
+import chariot.internal.chess.BoardProviders;
 
 public interface BoardProvider {
 
@@ -24,15 +24,14 @@ public interface BoardProvider {
                 pieces.toUpperCase(Locale.ROOT));
     }
 
+    /// The providers by variant, where a provider of the user takes precedence over the built-in one.
+    /// The providers are looked up with [ServiceLoader] once, and then shared by all calls.
     static Map<String, BoardProvider> providers() {
-        return ServiceLoader.load(BoardProvider.class).stream()
-            .map(ServiceLoader.Provider::get)
-            // Sort so that InternalBoardProvider ends up last,
-            // so that a user provided provider will be used instead
-            .sorted(Comparator.comparing(provider -> provider instanceof InternalBoardProvider))
-            .<Map.Entry<String, BoardProvider>>mapMulti((provider, mapper) ->
-                    provider.supportedVariants().stream().forEach(str ->
-                        mapper.accept(Map.entry(str, provider))))
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (firstMapping, _) -> firstMapping));
+        return BoardProviders.providers();
+    }
+
+    /// Looks up the providers again, for instance after the module layers or the context class loader changed
+    static void reload() {
+        BoardProviders.reload();
     }
 }
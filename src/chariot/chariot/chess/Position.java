@@ -0,0 +1,91 @@
+package chariot.chess;
+
+import module java.base;
+
+import chariot.internal.chess.InternalPosition;
+
+/// A mutable chess position, which plays and takes back moves in place.
+///
+/// Where [Board] returns a new board for each move, a position is meant for loops which visit many positions,
+/// like searching a tree of moves or replaying games, and plays moves without allocating.
+/// A position isn't thread-safe - use [#toBoard()] to share a snapshot of it.
+///
+/// Moves are `int`s, which only have a meaning in the position they are generated in.
+/// Their squares are numbered `a1 = 0, b1 = 1, ... h8 = 63`, and castling moves the king onto the castling rook.
+/// {@snippet :
+/// Position position = Position.ofStandard();
+/// int[] moves = new int[Position.maxMoves];
+/// int count = position.legalMoves(moves);
+/// for (int i = 0; i < count; i++) {
+///     position.makeMove(moves[i]);
+///     // ...
+///     position.unmakeMove();
+/// }
+/// }
+public interface Position {
+
+    /// Room enough for the legal moves of any position
+    int maxMoves = 256;
+
+    /// The move of [#move(String)] when there is no such legal move
+    int noMove = -1;
+
+    static Position ofStandard() {
+        return of("standard", FEN.standardStr);
+    }
+
+    /// A position of the variant `standard`, `chess960` or `fromPosition`
+    ///
+    /// @throws IllegalArgumentException if the variant is another variant
+    static Position of(String variant, String fen) {
+        return InternalPosition.of(variant, fen);
+    }
+
+    static Position of(Board board) {
+        return of(board.variant(), board.toFEN());
+    }
+
+    /// Fills `moves` with the legal moves, and returns the number of moves
+    int legalMoves(int[] moves);
+
+    /// Plays a legal move, which can be taken back with [#unmakeMove()]
+    ///
+    /// Only a move from [#legalMoves(int\[\])] or [#move(String)] is legal.
+    ///
+    /// @throws IllegalArgumentException if the move is [#noMove], or isn't a move of a piece of the side to move -
+    ///                                  the position is left unchanged
+    void makeMove(int move);
+
+    /// Takes back the last move played with [#makeMove(int)]
+    ///
+    /// @throws IllegalStateException if there is no move to take back
+    void unmakeMove();
+
+    /// The number of moves which can be taken back
+    int plies();
+
+    /// The legal move of a move in UCI or SAN, like `e2e4` or `Nf3`, or [#noMove] if there is none
+    int move(String uciOrSan);
+
+    String toUCI(int move);
+    String toFEN();
+    String variant();
+    Side sideToMove();
+    boolean inCheck();
+
+    /// The Zobrist hash of the position, see [Board#positionKey()].
+    /// It is kept up to date as moves are made and unmade, so it is cheap to read after every move.
+    long positionKey();
+
+    /// An immutable board of the current position
+    Board toBoard();
+
+    static int from(int move)          { return move & 63; }
+    static int to(int move)            { return (move >>> 6) & 63; }
+    static boolean isCastling(int move) { return (move >>> 15) == 2; }
+
+    static Optional<Piece> promotion(int move) {
+        int type = (move >>> 12) & 7;
+        return type == 0 ? Optional.empty() : Optional.of(Piece.values()[type]);
+    }
+}
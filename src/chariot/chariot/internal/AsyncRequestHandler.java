@@ -0,0 +1,17 @@
+package chariot.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public interface AsyncRequestHandler {
+
+    public CompletableFuture<RequestResult> request(RequestParameters parameters);
+
+    // Runs the work of consuming responses, such as publishing the entries of a stream
+    public Executor executor();
+
+    default ResultCache resultCache() {
+        return ResultCache.disabled;
+    }
+
+}
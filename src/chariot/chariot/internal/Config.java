@@ -1,8 +1,11 @@
 package chariot.internal;
 
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 import java.util.logging.*;
 import java.util.prefs.BackingStoreException;
@@ -20,6 +23,29 @@ import chariot.api.Builders.*;
 //  - response
 //  - auth
 // retries
+// concurrency
+//  - api
+//  - explorer
+//  - tablebase
+//  - engine
+// rate limits
+//  - api
+//  - explorer
+//  - tablebase
+//  - engine
+// transport
+//  - executor
+//  - http client
+// response cache
+// result caches
+//  - games
+//  - masters pgn
+//  - fide players
+//  - tablebase
+// disk cache
+// reconnect
+// lazy lists
+// page lookahead
 // token
 
 public sealed interface Config {
@@ -27,18 +53,31 @@ public sealed interface Config {
     record Auth(Basic basic, Supplier<char[]> token)            implements Config {
         @Override public String toString() { return "Auth[%s]".formatted(basic()); }
     }
-    record Basic(Servers servers, Logging logging, int retries, Duration spacing, UAInfo uaInfo) implements Config {
+    record Basic(Servers servers, Logging logging, int retries, Duration spacing, UAInfo uaInfo, Lanes lanes, RateLimits rateLimits, Transport transport, int responseCache, ResultCaches resultCaches, DiskCacheFile diskCache, ReconnectPolicy reconnect, boolean lazyLists, int pageLookahead) implements Config {
 
         // boilerplate begin (can be replaced when reconstruction is in place - https://github.com/openjdk/amber-docs/blob/master/eg-drafts/reconstruction-records-and-classes.md)
-        sealed interface Component permits Config.Servers, Config.Logging, Retries, Spacing, UAInfo {}
+        sealed interface Component permits Config.Servers, Config.Logging, Retries, Spacing, UAInfo, Config.Lanes, Config.RateLimits, Transport, ResponseCacheSize, Config.ResultCaches, DiskCacheFile, Config.ReconnectPolicy, LazyLists, PageLookahead {}
         record Retries(int value) implements Component { Retries { if (value < 0) throw new IllegalArgumentException("Retries (" + value + ") must not be < 0"); } }
         record Spacing(Duration value) implements Component { Spacing { if (value.isNegative()) throw new IllegalArgumentException("Spacing (" + value + ") must not be negative"); } }
+        record ResponseCacheSize(int value) implements Component { ResponseCacheSize { if (value < 0) throw new IllegalArgumentException("Response cache size (" + value + ") must not be < 0"); } }
+        record DiskCacheFile(Path path, long maxBytes) implements Component { DiskCacheFile { Objects.requireNonNull(path); if (maxBytes < 1) throw new IllegalArgumentException("Disk cache size (" + maxBytes + ") must not be < 1"); } }
+        record LazyLists(boolean value) implements Component {}
+        record PageLookahead(int value) implements Component { PageLookahead { if (value < 0) throw new IllegalArgumentException("Page lookahead (" + value + ") must not be < 0"); } }
         Basic with(Component component) { return new Basic(
                 component instanceof Servers   c ? c       : servers,
                 component instanceof Logging   c ? c       : logging,
                 component instanceof Retries   c ? c.value : retries,
                 component instanceof Spacing   c ? c.value : spacing,
-                component instanceof UAInfo    c ? c       : uaInfo);
+                component instanceof UAInfo    c ? c       : uaInfo,
+                component instanceof Lanes     c ? c       : lanes,
+                component instanceof RateLimits c ? c      : rateLimits,
+                component instanceof Transport c ? c       : transport,
+                component instanceof ResponseCacheSize c ? c.value : responseCache,
+                component instanceof ResultCaches c ? c    : resultCaches,
+                component instanceof DiskCacheFile c ? c   : diskCache,
+                component instanceof ReconnectPolicy c ? c : reconnect,
+                component instanceof LazyLists c ? c.value : lazyLists,
+                component instanceof PageLookahead c ? c.value : pageLookahead);
         }
         Basic with(Component... components) {
             var copy = this;
@@ -112,6 +151,161 @@ public sealed interface Config {
 
     record UAInfo(String identifier, boolean replace) implements Basic.Component { public UAInfo { Objects.requireNonNull(identifier); } }
 
+    record Concurrency(int requests, int streams) {
+        public Concurrency {
+            if (requests < 1) throw new IllegalArgumentException("Requests (" + requests + ") must not be < 1");
+            if (streams < 1) throw new IllegalArgumentException("Streams (" + streams + ") must not be < 1");
+        }
+    }
+
+    record Lanes(Concurrency api, Concurrency explorer, Concurrency tablebase, Concurrency engine) implements Basic.Component {
+
+        // Lichess asks clients to send one request at a time
+        static Lanes of() {
+            var concurrency = new Concurrency(1, 8);
+            return new Lanes(concurrency, concurrency, concurrency, concurrency);
+        }
+
+        public Lanes {
+            Objects.requireNonNull(api);
+            Objects.requireNonNull(explorer);
+            Objects.requireNonNull(tablebase);
+            Objects.requireNonNull(engine);
+        }
+
+        Concurrency of(ServerType serverType) {
+            return switch(serverType) {
+                case api       -> api;
+                case explorer  -> explorer;
+                case tablebase -> tablebase;
+                case engine    -> engine;
+            };
+        }
+
+        Lanes with(ServerType serverType, Concurrency concurrency) { return new Lanes(
+                serverType == ServerType.api       ? concurrency : api,
+                serverType == ServerType.explorer  ? concurrency : explorer,
+                serverType == ServerType.tablebase ? concurrency : tablebase,
+                serverType == ServerType.engine    ? concurrency : engine);
+        }
+    }
+
+    record RateLimit(int burst, Duration interval) {
+        public RateLimit {
+            if (burst < 1) throw new IllegalArgumentException("Burst (" + burst + ") must not be < 1");
+            if (interval.isNegative()) throw new IllegalArgumentException("Interval (" + interval + ") must not be negative");
+        }
+    }
+
+    record RateLimits(RateLimit api, RateLimit explorer, RateLimit tablebase, RateLimit engine) implements Basic.Component {
+
+        static RateLimits of() {
+            var limit = new RateLimit(4, Duration.ofSeconds(1));
+            return new RateLimits(limit, limit, limit, limit);
+        }
+
+        public RateLimits {
+            Objects.requireNonNull(api);
+            Objects.requireNonNull(explorer);
+            Objects.requireNonNull(tablebase);
+            Objects.requireNonNull(engine);
+        }
+
+        RateLimit of(ServerType serverType) {
+            return switch(serverType) {
+                case api       -> api;
+                case explorer  -> explorer;
+                case tablebase -> tablebase;
+                case engine    -> engine;
+            };
+        }
+
+        RateLimits with(ServerType serverType, UnaryOperator<RateLimit> operator) { return new RateLimits(
+                serverType == ServerType.api       ? operator.apply(api)       : api,
+                serverType == ServerType.explorer  ? operator.apply(explorer)  : explorer,
+                serverType == ServerType.tablebase ? operator.apply(tablebase) : tablebase,
+                serverType == ServerType.engine    ? operator.apply(engine)    : engine);
+        }
+    }
+
+    record ResultCachePolicy(int maxEntries, Duration ttl) {
+        public ResultCachePolicy {
+            if (maxEntries < 0) throw new IllegalArgumentException("Max entries (" + maxEntries + ") must not be < 0");
+            if (ttl.isNegative()) throw new IllegalArgumentException("TTL (" + ttl + ") must not be negative");
+        }
+    }
+
+    record ResultCaches(Map<ResultCache.Type, ResultCachePolicy> policies) implements Basic.Component {
+
+        static ResultCaches of() {
+            return new ResultCaches(Map.of());
+        }
+
+        public ResultCaches {
+            policies = Map.copyOf(policies);
+        }
+
+        ResultCaches with(ResultCache.Type type, ResultCachePolicy policy) {
+            var copy = new HashMap<>(policies);
+            copy.put(type, policy);
+            return new ResultCaches(copy);
+        }
+    }
+
+    record ReconnectPolicy(Duration idleTimeout, Duration backOff, Duration maxBackOff, int maxAttempts) implements Basic.Component {
+
+        static ReconnectPolicy of() {
+            return new ReconnectPolicy(Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(60), 5);
+        }
+
+        public ReconnectPolicy {
+            if (! idleTimeout.isPositive()) throw new IllegalArgumentException("Idle timeout (" + idleTimeout + ") must be positive");
+            if (! backOff.isPositive()) throw new IllegalArgumentException("Back-off (" + backOff + ") must be positive");
+            if (maxBackOff.compareTo(backOff) < 0) throw new IllegalArgumentException("Max back-off (" + maxBackOff + ") must not be < " + backOff);
+            if (maxAttempts < 0) throw new IllegalArgumentException("Max attempts (" + maxAttempts + ") must not be < 0");
+        }
+    }
+
+    // The HttpClient is created on first use, and then shared by all clients created from the same configuration
+    // as are the rate limiters
+    record Transport(Executor executor, Supplier<HttpClient> httpClient, ConcurrentMap<RateLimiter.Key, RateLimiter> rateLimiters) implements Basic.Component {
+        public Transport {
+            Objects.requireNonNull(executor);
+            Objects.requireNonNull(httpClient);
+            Objects.requireNonNull(rateLimiters);
+        }
+
+        RateLimiter rateLimiter(RateLimiter.Key key) {
+            return rateLimiters.computeIfAbsent(key, _ -> new RateLimiter(key.limit()));
+        }
+
+        // A virtual thread per task, shared by all configurations -
+        // unlike an ExecutorService per configuration, there is nothing which must be shut down
+        private static final ThreadFactory virtualThreads = Thread.ofVirtual().name("chariot-", 0).factory();
+        static final Executor defaultExecutor = task -> virtualThreads.newThread(task).start();
+
+        static Transport of() {
+            return of(defaultExecutor);
+        }
+
+        static Transport of(Executor executor) {
+            var holder = new HttpClient[1];
+            return new Transport(executor, () -> {
+                synchronized (holder) {
+                    if (holder[0] == null) {
+                        holder[0] = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_2)
+                            .connectTimeout(Duration.ofSeconds(5))
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .executor(executor)
+                            .build();
+                    }
+                    return holder[0];
+                }
+            }, new ConcurrentHashMap<>());
+        }
+    }
+
     enum ServerType {
         api,
         explorer,
@@ -135,6 +329,7 @@ public sealed interface Config {
     default Duration spacing()   { return basic().spacing();   }
     default Servers  servers()   { return basic().servers();   }
     default Logging  logging()   { return basic().logging();   }
+    default HttpClient httpClient() { return basic().transport().httpClient().get(); }
     default String   userAgent() {
         String identifier = basic().uaInfo().identifier();
         if (basic().uaInfo().replace()) return identifier;
@@ -201,7 +396,7 @@ public sealed interface Config {
     }
 
     class BasicConfigBuilder implements ConfigBuilder {
-        Basic basic = new Basic(Servers.of(), Logging.of(), 1 /*retries*/, Duration.ofSeconds(1) /*spacing*/ ,new UAInfo("", false));
+        Basic basic = new Basic(Servers.of(), Logging.of(), 1 /*retries*/, Duration.ofSeconds(1) /*spacing*/ ,new UAInfo("", false), Lanes.of(), RateLimits.of(), Transport.of(), 0 /*response cache*/, ResultCaches.of(), null /*disk cache*/, null /*reconnect*/, false /*lazy lists*/, 1 /*page lookahead*/);
 
         @Override
         public ConfigBuilder api(URI uri) {
@@ -234,6 +429,27 @@ public sealed interface Config {
         @Override
         public ConfigBuilder spacing(Duration spacing) {
             basic = basic.with(new Config.Basic.Spacing(spacing));
+            var limits = basic.rateLimits();
+            for (var serverType : ServerType.values()) {
+                limits = limits.with(serverType, limit -> new RateLimit(limit.burst(), spacing));
+            }
+            basic = basic.with(limits);
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder concurrency(Consumer<ConcurrencyBuilder> params) {
+            var concurrencyBuilder = new DefaultConcurrencyBuilder(basic.lanes());
+            params.accept(concurrencyBuilder);
+            basic = basic.with(concurrencyBuilder.lanes);
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder rateLimits(Consumer<RateLimitBuilder> params) {
+            var rateLimitBuilder = new DefaultRateLimitBuilder(basic.rateLimits());
+            params.accept(rateLimitBuilder);
+            basic = basic.with(rateLimitBuilder.rateLimits);
             return this;
         }
 
@@ -243,6 +459,52 @@ public sealed interface Config {
             basic = basic.with(new Config.Basic.UAInfo(identifier, replaceAll));
             return this;
         }
+
+        @Override
+        public ConfigBuilder responseCache(int maxEntries) {
+            basic = basic.with(new Config.Basic.ResponseCacheSize(maxEntries));
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder resultCache(Consumer<ResultCacheBuilder> params) {
+            var resultCacheBuilder = new DefaultResultCacheBuilder(basic.resultCaches());
+            params.accept(resultCacheBuilder);
+            basic = basic.with(resultCacheBuilder.resultCaches);
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder diskCache(Path file, long maxBytes) {
+            basic = basic.with(new Config.Basic.DiskCacheFile(file, maxBytes));
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder reconnect(Consumer<ReconnectBuilder> params) {
+            var reconnectBuilder = new DefaultReconnectBuilder(basic.reconnect() instanceof ReconnectPolicy policy ? policy : ReconnectPolicy.of());
+            params.accept(reconnectBuilder);
+            basic = basic.with(reconnectBuilder.policy);
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder lazyLists(boolean lazy) {
+            basic = basic.with(new Config.Basic.LazyLists(lazy));
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder pageLookahead(int pages) {
+            basic = basic.with(new Config.Basic.PageLookahead(pages));
+            return this;
+        }
+
+        @Override
+        public ConfigBuilder executor(Executor executor) {
+            basic = basic.with(Transport.of(Objects.requireNonNull(executor)));
+            return this;
+        }
     }
 
     class DefaultServerBuilder implements ServerBuilder {
@@ -259,6 +521,66 @@ public sealed interface Config {
         }
     }
 
+    class DefaultConcurrencyBuilder implements ConcurrencyBuilder {
+        Lanes lanes;
+        DefaultConcurrencyBuilder(Lanes initial) { lanes = initial; }
+        @Override public ConcurrencyBuilder api(int requests, int streams)       { return concurrency(ServerType.api, requests, streams); }
+        @Override public ConcurrencyBuilder explorer(int requests, int streams)  { return concurrency(ServerType.explorer, requests, streams); }
+        @Override public ConcurrencyBuilder tablebase(int requests, int streams) { return concurrency(ServerType.tablebase, requests, streams); }
+        @Override public ConcurrencyBuilder engine(int requests, int streams)    { return concurrency(ServerType.engine, requests, streams); }
+
+        private ConcurrencyBuilder concurrency(ServerType serverType, int requests, int streams) {
+            lanes = lanes.with(serverType, new Concurrency(requests, streams));
+            return this;
+        }
+    }
+
+    class DefaultRateLimitBuilder implements RateLimitBuilder {
+        RateLimits rateLimits;
+        DefaultRateLimitBuilder(RateLimits initial) { rateLimits = initial; }
+        @Override public RateLimitBuilder api(int burst, Duration interval)       { return limit(ServerType.api, burst, interval); }
+        @Override public RateLimitBuilder explorer(int burst, Duration interval)  { return limit(ServerType.explorer, burst, interval); }
+        @Override public RateLimitBuilder tablebase(int burst, Duration interval) { return limit(ServerType.tablebase, burst, interval); }
+        @Override public RateLimitBuilder engine(int burst, Duration interval)    { return limit(ServerType.engine, burst, interval); }
+
+        private RateLimitBuilder limit(ServerType serverType, int burst, Duration interval) {
+            var limit = new RateLimit(burst, interval);
+            rateLimits = rateLimits.with(serverType, _ -> limit);
+            return this;
+        }
+    }
+
+    class DefaultResultCacheBuilder implements ResultCacheBuilder {
+        ResultCaches resultCaches;
+        DefaultResultCacheBuilder(ResultCaches initial) { resultCaches = initial; }
+        @Override public ResultCacheBuilder games(int maxEntries, Duration ttl)       { return policy(ResultCache.Type.games, maxEntries, ttl); }
+        @Override public ResultCacheBuilder mastersPgn(int maxEntries, Duration ttl)  { return policy(ResultCache.Type.mastersPgn, maxEntries, ttl); }
+        @Override public ResultCacheBuilder fidePlayers(int maxEntries, Duration ttl) { return policy(ResultCache.Type.fidePlayers, maxEntries, ttl); }
+        @Override public ResultCacheBuilder tablebase(int maxEntries, Duration ttl)   { return policy(ResultCache.Type.tablebase, maxEntries, ttl); }
+
+        private ResultCacheBuilder policy(ResultCache.Type type, int maxEntries, Duration ttl) {
+            resultCaches = resultCaches.with(type, new ResultCachePolicy(maxEntries, ttl));
+            return this;
+        }
+    }
+
+    class DefaultReconnectBuilder implements ReconnectBuilder {
+        ReconnectPolicy policy;
+        DefaultReconnectBuilder(ReconnectPolicy initial) { policy = initial; }
+        @Override public ReconnectBuilder idleTimeout(Duration idleTimeout) {
+            policy = new ReconnectPolicy(idleTimeout, policy.backOff(), policy.maxBackOff(), policy.maxAttempts());
+            return this;
+        }
+        @Override public ReconnectBuilder backOff(Duration initial, Duration max) {
+            policy = new ReconnectPolicy(policy.idleTimeout(), initial, max, policy.maxAttempts());
+            return this;
+        }
+        @Override public ReconnectBuilder maxAttempts(int maxAttempts) {
+            policy = new ReconnectPolicy(policy.idleTimeout(), policy.backOff(), policy.maxBackOff(), maxAttempts);
+            return this;
+        }
+    }
+
     class DefaultLoggingBuilder implements LoggingBuilder {
         Logging logging;
         DefaultLoggingBuilder(Logging initial) { logging  = initial; }
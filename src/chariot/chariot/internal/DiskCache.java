@@ -0,0 +1,248 @@
+package chariot.internal;
+
+import module java.base;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/// Cache of response bodies in a file, which survives restarts.
+///
+/// The file is a log of records, each holding a key and the lines of a response,
+/// ```
+/// int keyLength, int valueLength, byte[keyLength] key, byte[valueLength] value
+/// ```
+/// where the key and the `\n`-separated lines are UTF-8.
+/// On open the file is scanned to build an index of the offset of each key,
+/// and a truncated record at the end, from an interrupted write, is dropped.
+/// A write which fails is truncated away, so later records follow the last complete one.
+///
+/// When the cached bytes exceed `maxBytes`, the least recently used entries are evicted
+/// and the remaining entries are compacted into a new file,
+/// which atomically replaces the old file - so evicted and replaced records don't survive a restart.
+/// If the compaction fails, the cache keeps using the old file.
+/// The file is never memory-mapped, and it is closed while it is replaced,
+/// as open or mapped files can't be replaced on every platform.
+public final class DiskCache {
+
+    private static final int headerBytes = 2 * Integer.BYTES;
+    private static final ConcurrentMap<Path, DiskCache> open = new ConcurrentHashMap<>();
+
+    record Location(long offset, int length) {}
+
+    private final Path file;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Location> index = new LinkedHashMap<>(16, 0.75f, true);
+    private FileChannel channel;
+    private long liveBytes;
+
+    private DiskCache(Path file, long maxBytes) throws IOException {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        load();
+    }
+
+    /// Returns the cache of the file, shared by all clients using the same file,
+    /// which must then use the same `maxBytes`
+    public static DiskCache open(Path file, long maxBytes) {
+        var cache = open.computeIfAbsent(file.toAbsolutePath().normalize(), path -> {
+            try {
+                return new DiskCache(path, maxBytes);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        });
+        if (cache.maxBytes != maxBytes) {
+            throw new IllegalArgumentException("Disk cache %s is already open with a size of %d bytes, not %d"
+                    .formatted(cache.file, cache.maxBytes, maxBytes));
+        }
+        return cache;
+    }
+
+    /// The key of a lookup, with the query parameters in a fixed order and the whitespace of a FEN normalized,
+    /// so equal lookups share an entry
+    static String key(URI server, String path) {
+        int q = path.indexOf('?');
+        if (q == -1) return server + path;
+        String query = Arrays.stream(path.substring(q + 1).split("&"))
+            .map(param -> param.startsWith("fen=") ? "fen=" + normalizeFen(param.substring(4)) : param)
+            .sorted()
+            .collect(Collectors.joining("&"));
+        return server + path.substring(0, q) + "?" + query;
+    }
+
+    private static String normalizeFen(String encoded) {
+        String fen = URLDecoder.decode(encoded, StandardCharsets.UTF_8).trim().replaceAll("\\s+", " ");
+        return Util.urlEncode(fen);
+    }
+
+    public synchronized List<String> get(String key) {
+        var location = index.get(key);
+        if (location == null || channel == null) return null;
+        try {
+            var buffer = ByteBuffer.allocate(location.length());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location.offset() + buffer.position()) == -1) throw new EOFException();
+            }
+            var value = new String(buffer.array(), StandardCharsets.UTF_8);
+            return value.isEmpty() ? List.of() : List.of(value.split("\n", -1));
+        } catch (IOException ioe) {
+            index.remove(key);
+            return null;
+        }
+    }
+
+    public synchronized void put(String key, List<String> lines) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        int recordBytes = headerBytes + keyBytes.length + valueBytes.length;
+        if (recordBytes > maxBytes || channel == null) return;
+
+        long offset;
+        try {
+            offset = channel.size();
+        } catch (IOException ioe) {
+            return;
+        }
+        try {
+            var buffer = ByteBuffer.allocate(recordBytes)
+                .putInt(keyBytes.length)
+                .putInt(valueBytes.length)
+                .put(keyBytes)
+                .put(valueBytes)
+                .flip();
+            while (buffer.hasRemaining()) channel.write(buffer, offset + buffer.position());
+        } catch (IOException ioe) {
+            // Any previous record of the key is still in place
+            try { channel.truncate(offset); } catch (IOException _) {}
+            return;
+        }
+
+        var previous = index.put(key, new Location(offset + headerBytes + keyBytes.length, valueBytes.length));
+        if (previous != null) liveBytes -= recordBytes(key, previous);
+        liveBytes += recordBytes;
+
+        if (liveBytes > maxBytes) {
+            evict(maxBytes * 3 / 4);
+            compact();
+        } else if (offset + recordBytes > 2 * liveBytes + maxBytes / 4) {
+            // Mostly replaced records
+            compact();
+        }
+    }
+
+    /// Closes the file, after which the file can be opened again
+    public synchronized void close() {
+        open.remove(file, this);
+        if (channel == null) return;
+        try { channel.close(); } catch (IOException _) {}
+        channel = null;
+        index.clear();
+        liveBytes = 0;
+    }
+
+    /// The size of the file, including replaced records which haven't been compacted away
+    public synchronized long fileBytes() {
+        try {
+            return channel == null ? 0 : channel.size();
+        } catch (IOException ioe) {
+            return 0;
+        }
+    }
+
+    private void evict(long targetBytes) {
+        var iterator = index.entrySet().iterator();
+        while (liveBytes > targetBytes && iterator.hasNext()) {
+            var eldest = iterator.next();
+            liveBytes -= recordBytes(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    /// Copies the entries to a new file, in least recently used order, and replaces the file with it.
+    /// The new file is complete and synced before the old file is closed and atomically replaced,
+    /// and if the replacement fails, the cache continues with the old file.
+    private void compact() {
+        var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        LinkedHashMap<String, Location> compacted;
+        try (var target = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            compacted = copyTo(target);
+        } catch (IOException ioe) {
+            try { Files.deleteIfExists(tmp); } catch (IOException _) {}
+            return;
+        }
+
+        try { channel.close(); } catch (IOException _) {}
+        boolean replaced;
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            replaced = true;
+        } catch (IOException ioe) {
+            try { Files.deleteIfExists(tmp); } catch (IOException _) {}
+            replaced = false;
+        }
+
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ioe) {
+            // Neither file can be used, so the cache is empty from now on
+            channel = null;
+            index.clear();
+            liveBytes = 0;
+            return;
+        }
+        if (replaced) {
+            index.clear();
+            index.putAll(compacted);
+        }
+    }
+
+    private LinkedHashMap<String, Location> copyTo(FileChannel target) throws IOException {
+        var compacted = new LinkedHashMap<String, Location>();
+        long position = 0;
+        for (var entry : index.entrySet()) {
+            var location = entry.getValue();
+            long recordStart = location.offset() - headerBytes - entry.getKey().getBytes(StandardCharsets.UTF_8).length;
+            long recordLength = location.offset() + location.length() - recordStart;
+            long copied = 0;
+            while (copied < recordLength) {
+                copied += channel.transferTo(recordStart + copied, recordLength - copied, target);
+            }
+            compacted.put(entry.getKey(), new Location(position + (location.offset() - recordStart), location.length()));
+            position += recordLength;
+        }
+        target.force(true);
+        return compacted;
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size == 0) return;
+        var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        long position = 0;
+        long valid = 0;
+        while (size - position >= headerBytes) {
+            int keyLength = in.readInt();
+            int valueLength = in.readInt();
+            position += headerBytes;
+            if (keyLength < 0 || valueLength < 0 || size - position < (long) keyLength + valueLength) break;
+            String key = new String(in.readNBytes(keyLength), StandardCharsets.UTF_8);
+            position += keyLength;
+            var previous = index.put(key, new Location(position, valueLength));
+            if (previous != null) liveBytes -= recordBytes(key, previous);
+            liveBytes += headerBytes + keyLength + valueLength;
+            in.skipNBytes(valueLength);
+            position += valueLength;
+            valid = position;
+        }
+        if (valid < size) channel.truncate(valid);
+        if (liveBytes > maxBytes) {
+            evict(maxBytes * 3 / 4);
+            compact();
+        }
+    }
+
+    private static long recordBytes(String key, Location location) {
+        return headerBytes + key.getBytes(StandardCharsets.UTF_8).length + location.length();
+    }
+}
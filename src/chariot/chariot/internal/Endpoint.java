@@ -52,7 +52,9 @@ public sealed interface Endpoint<T> {
             String contentType,
             Method method,
             Scope scope,
-            ServerType target) {}
+            ServerType target,
+            ResultCache.Type cache,
+            Reconnect reconnect) {}
 
     EP ep();
     default String endpoint()    { return ep().endpoint(); }
@@ -61,6 +63,8 @@ public sealed interface Endpoint<T> {
     default Method method()      { return ep().method(); }
     default Scope scope()        { return ep().scope(); }
     default ServerType target()  { return ep().target(); }
+    default ResultCache.Type cache() { return ep().cache(); }
+    default Reconnect reconnect()    { return ep().reconnect(); }
 
     public static EPOne<UserAuth> accountProfile =
         Endpoint.of(mapper(UserData.class).andThen(UserData::toUserAuth)).endpoint("/api/account").scope(Scope.any).toOne();
@@ -232,7 +236,7 @@ public sealed interface Endpoint<T> {
         Endpoint.of(GameImport.class).endpoint("/api/import").post(wwwform).toOne();
 
     public static EPMany<GameMeta> streamGamesByUsers =
-        Endpoint.of(GameMeta.class).endpoint("/api/stream/games-by-users").post(plain).accept(jsonstream).toMany();
+        Endpoint.of(GameMeta.class).endpoint("/api/stream/games-by-users").post(plain).accept(jsonstream).reconnect(Reconnect.dedupe).toMany();
 
     public static EPMany<GameMeta> streamGamesByStreamIds =
         Endpoint.of(GameMeta.class).endpoint("/api/stream/games/%s").post(plain).accept(jsonstream).toMany();
@@ -241,10 +245,10 @@ public sealed interface Endpoint<T> {
         Endpoint.of(Ack.class).endpoint("/api/stream/games/%s/add").post(plain).accept(json).toAck();
 
     public static EPMany<MoveInfo> streamMoves =
-        Endpoint.of(MoveInfo.class).endpoint("/api/stream/game/%s").accept(jsonstream).toMany();
+        Endpoint.of(MoveInfo.class).endpoint("/api/stream/game/%s").accept(jsonstream).reconnect(Reconnect.game).toMany();
 
     public static EPMany<Event> streamEvents =
-        Endpoint.of(Event.class).endpoint("/api/stream/event").accept(jsonstream).scope(Scope.challenge_read).toMany();
+        Endpoint.of(Event.class).endpoint("/api/stream/event").accept(jsonstream).scope(Scope.challenge_read).reconnect(Reconnect.dedupe).toMany();
 
     public static EPOne<Arena> createArenaTournament =
         Endpoint.of(Arena.class).endpoint("/api/tournament").post(wwwform).scope(Scope.tournament_write).toOne();
@@ -296,12 +300,12 @@ public sealed interface Endpoint<T> {
         .accept(chesspgn).toMany();
 
     public static EPOne<Game> gameById =
-        Endpoint.of(Game.class).endpoint("/game/export/%s").toOne();
+        Endpoint.of(Game.class).endpoint("/game/export/%s").cache(ResultCache.Type.games).toOne();
 
     public static EPOne<PGN> gameByIdPgn =
         Endpoint.of(PGN.class).endpoint("/game/export/%s")
         .streamMapper(Util::pgnStream)
-        .accept(chesspgn).toOne();
+        .accept(chesspgn).cache(ResultCache.Type.games).toOne();
 
     public static EPMany<Game> gamesByIds =
         Endpoint.of(Game.class).endpoint("/api/games/export/_ids").post(plain).accept(jsonstream).toMany();
@@ -344,25 +348,25 @@ public sealed interface Endpoint<T> {
     public static EPOne<PGN> exploreMasterOTB =
         Endpoint.of(PGN.class).endpoint("/masters/pgn/%s")
         .streamMapper(Util::pgnStream)
-        .accept(chesspgn).target(ServerType.explorer).scope(Scope.any).toOne();
+        .accept(chesspgn).target(ServerType.explorer).scope(Scope.any).cache(ResultCache.Type.mastersPgn).toOne();
 
     public static EPOne<TablebaseResult> tablebaseLookup =
-        Endpoint.of(TablebaseResult.class).endpoint("/standard").target(ServerType.tablebase).toOne();
+        Endpoint.of(TablebaseResult.class).endpoint("/standard").target(ServerType.tablebase).cache(ResultCache.Type.tablebase).toOne();
 
     public static EPOne<TablebaseResult> tablebaseAtomicLookup =
-        Endpoint.of(TablebaseResult.class).endpoint("/atomic").target(ServerType.tablebase).toOne();
+        Endpoint.of(TablebaseResult.class).endpoint("/atomic").target(ServerType.tablebase).cache(ResultCache.Type.tablebase).toOne();
 
     public static EPOne<TablebaseResult> tablebaseAntichessLookup =
-        Endpoint.of(TablebaseResult.class).endpoint("/antichess").target(ServerType.tablebase).toOne();
+        Endpoint.of(TablebaseResult.class).endpoint("/antichess").target(ServerType.tablebase).cache(ResultCache.Type.tablebase).toOne();
 
     public static EPOne<TVChannels> gameTVChannels =
         Endpoint.of(TVChannels.class).endpoint("/api/tv/channels").toOne();
 
     public static EPMany<TVFeedEvent> gameTVFeed =
-        Endpoint.of(TVFeedEvent.class).endpoint("/api/tv/feed").accept(jsonstream).toMany();
+        Endpoint.of(TVFeedEvent.class).endpoint("/api/tv/feed").accept(jsonstream).reconnect(Reconnect.dedupe).toMany();
 
     public static EPMany<TVFeedEvent> gameTVFeedChannel =
-        Endpoint.of(TVFeedEvent.class).endpoint("/api/tv/%s/feed").accept(jsonstream).toMany();
+        Endpoint.of(TVFeedEvent.class).endpoint("/api/tv/%s/feed").accept(jsonstream).reconnect(Reconnect.dedupe).toMany();
 
 
     public static EPMany<Game> gamesTVChannel =
@@ -633,7 +637,7 @@ public sealed interface Endpoint<T> {
     public static EPMany<PGN> streamBroadcast =
         Endpoint.of(PGN.class).endpoint("/api/stream/broadcast/round/%s.pgn")
         .streamMapper(Util::pgnStream)
-        .accept(chesspgn).toMany();
+        .accept(chesspgn).reconnect(Reconnect.snapshots).toMany();
 
     public static EPMany<PGN> exportBroadcastOneRoundPgn =
         Endpoint.of(PGN.class).endpoint("/api/broadcast/round/%s.pgn")
@@ -651,7 +655,7 @@ public sealed interface Endpoint<T> {
         .endpoint("/api/broadcast/my-rounds").accept(jsonstream).scope(Scope.study_read).toMany();
 
     public static EPOne<FidePlayer> fidePlayer =
-        Endpoint.of(FidePlayer.class).endpoint("/api/fide/player/%s").toOne();
+        Endpoint.of(FidePlayer.class).endpoint("/api/fide/player/%s").cache(ResultCache.Type.fidePlayers).toOne();
 
     public static EPMany<FidePlayer> fidePlayers =
         Endpoint.ofArr(FidePlayer.class).endpoint("/api/fide/player").toMany();
@@ -667,7 +671,7 @@ public sealed interface Endpoint<T> {
         Endpoint.of(SeekAck.class).endpoint("/api/board/seek").post(wwwform).accept(plain).scope(Scope.board_play).toOne();
 
     public static EPMany<GameStateEvent> streamBoardGameEvents =
-        Endpoint.of(GameStateEvent.class).endpoint("/api/board/game/stream/%s").accept(jsonstream).scope(Scope.board_play).toMany();
+        Endpoint.of(GameStateEvent.class).endpoint("/api/board/game/stream/%s").accept(jsonstream).scope(Scope.board_play).reconnect(Reconnect.game).toMany();
 
     public static EPAck boardMove =
         Endpoint.of(Ack.class).endpoint("/api/board/game/%s/move/%s").post().scope(Scope.board_play).toAck();
@@ -707,7 +711,7 @@ public sealed interface Endpoint<T> {
         Endpoint.of(Ack.class).endpoint("/api/bot/account/upgrade").post().scope(Scope.bot_play).toAck();
 
     public static EPMany<GameStateEvent> streamBotGameEvents =
-        Endpoint.of(GameStateEvent.class).endpoint("/api/bot/game/stream/%s").accept(jsonstream).scope(Scope.bot_play).toMany();
+        Endpoint.of(GameStateEvent.class).endpoint("/api/bot/game/stream/%s").accept(jsonstream).scope(Scope.bot_play).reconnect(Reconnect.game).toMany();
 
     public static EPAck botMove =
         Endpoint.of(Ack.class).endpoint("/api/bot/game/%s/move/%s").post().scope(Scope.bot_play).toAck();
@@ -850,6 +854,8 @@ public sealed interface Endpoint<T> {
         private String contentType;
         private Method method = Method.GET;
         private Scope scope;
+        private ResultCache.Type cache;
+        private Reconnect reconnect = Reconnect.never;
 
         public Builder<T> elementMapper(Function<String, T> mapper) {
             return elementMapper(mapper, false);
@@ -937,6 +943,16 @@ public sealed interface Endpoint<T> {
             return this;
         }
 
+        public Builder<T> cache(ResultCache.Type cache) {
+            this.cache = Objects.requireNonNull(cache);
+            return this;
+        }
+
+        public Builder<T> reconnect(Reconnect reconnect) {
+            this.reconnect = Objects.requireNonNull(reconnect);
+            return this;
+        }
+
         public EPAck toAck() {
             return Endpoint.ack(this);
         }
@@ -951,14 +967,14 @@ public sealed interface Endpoint<T> {
     }
 
     static <T> EPAck ack(Builder<T> builder) {
-        return new EPAck(new EP(builder.endpoint, builder.accept, builder.contentType, builder.method, builder.scope, builder.target), builder.mapAck);
+        return new EPAck(new EP(builder.endpoint, builder.accept, builder.contentType, builder.method, builder.scope, builder.target, builder.cache, builder.reconnect), builder.mapAck);
     }
 
     static <T> EPOne<T> one(Builder<T> builder) {
-        return new EPOne<>(new EP(builder.endpoint, builder.accept, builder.contentType, builder.method, builder.scope, builder.target), builder.mapOne);
+        return new EPOne<>(new EP(builder.endpoint, builder.accept, builder.contentType, builder.method, builder.scope, builder.target, builder.cache, builder.reconnect), builder.mapOne);
     }
     static <T> EPMany<T> many(Builder<T> builder) {
-        return new EPMany<>(new EP(builder.endpoint, builder.accept, builder.contentType, builder.method, builder.scope, builder.target), builder.mapMany);
+        return new EPMany<>(new EP(builder.endpoint, builder.accept, builder.contentType, builder.method, builder.scope, builder.target, builder.cache, builder.reconnect), builder.mapMany);
     }
 
     public static <T> Builder<T> of(Class<T> clazz) {
@@ -995,7 +1011,9 @@ public sealed interface Endpoint<T> {
         var builder = new ParamsBuilder(endpoint(), method())
             .headers(headers)
             .scope(scope())
-            .serverType(target());
+            .serverType(target())
+            .cache(cache())
+            .reconnect(reconnect());
 
         var params = new Params() {
             public Params path(Object... pathParameters)             { builder.path(pathParameters); return this; }
@@ -3,63 +3,225 @@ package chariot.internal;
 import java.net.ConnectException;
 import java.net.URI;
 import java.net.http.*;
-import java.net.http.HttpClient.*;
 import java.net.http.HttpRequest.*;
 import java.net.http.HttpResponse.*;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.*;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.*;
-import java.util.concurrent.locks.*;
 import java.util.function.*;
 import java.util.logging.Level;
 import java.util.stream.*;
 
 import chariot.Client.Scope;
+import chariot.internal.Config.ServerType;
+import chariot.internal.yayson.YayMapper;
 import chariot.model.*;
 
-public class InternalClient {
+public class InternalClient implements RequestHandler {
 
     private final Config config;
     private final int retryMillis = 60_000;
-    private final int burstRefillAfterInactivityMillis = 10_000;
-
-    private final int NUMBER_OF_PARALLEL_REQUESTS = 1;
-    private final int NUMBER_OF_BURST_REQUESTS = 4;
-    private final int NUMBER_OF_STREAM_REQUESTS = 8;
-
-    private final Semaphore singleSemaphore = new Semaphore(NUMBER_OF_PARALLEL_REQUESTS, true);
-    private final Semaphore streamSemaphore = new Semaphore(NUMBER_OF_STREAM_REQUESTS, true);
-    private final Semaphore burstSemaphore = new Semaphore(NUMBER_OF_BURST_REQUESTS);
-    private final Semaphore waitingSemaphore = new Semaphore(0);
-    private final AtomicLong previousRequestTS = new AtomicLong();
-    private final AtomicBoolean throttle429 = new AtomicBoolean();
-    private final Lock throttleLock = new ReentrantLock();
-
-    private final HttpClient httpClient = HttpClient.newBuilder()
-        .version(Version.HTTP_2)
-        .connectTimeout(Duration.ofSeconds(5))
-        .followRedirects(Redirect.NORMAL)
-        .build();
+
+    private final Map<ServerType, Lane> lanes = new EnumMap<>(ServerType.class);
+
+    private final HttpClient httpClient;
+    private final ResponseCache responseCache;
+    private final ResultCache resultCache;
+    private final DiskCache diskCache;
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    // The digest of the most recent token, which keys the rate limiters and response cache entries of the token -
+    // the token can change, so it is kept with the authorization it was computed from
+    private record TokenDigest(String authorization, String digest) {}
+    private volatile TokenDigest tokenDigest;
 
     public InternalClient(Config config) {
         this.config = config;
+        this.httpClient = config.httpClient();
+        this.responseCache = config.basic().responseCache() > 0 ? new ResponseCache(config.basic().responseCache()) : null;
+        this.resultCache = new ResultCache(config.basic().resultCaches().policies());
+        this.diskCache = config.basic().diskCache() instanceof Config.Basic.DiskCacheFile file ? DiskCache.open(file.path(), file.maxBytes()) : null;
+        for (var serverType : ServerType.values()) {
+            lanes.put(serverType, new Lane(serverType, config.basic().lanes().of(serverType)));
+        }
     }
 
     public Config config() {
         return config;
     }
 
+    public ClientMetrics metrics() {
+        return new ClientMetrics(
+                lanes.values().stream().map(Lane::metrics).toList(),
+                Stream.concat(
+                    Stream.ofNullable(responseCache).map(ResponseCache::stats),
+                    resultCache.stats().stream()).toList(),
+                singleFlight.coalesced());
+    }
+
+    @Override
+    public ResultCache resultCache() {
+        return resultCache;
+    }
+
+    @Override
+    public int pageLookahead() {
+        return config.basic().pageLookahead();
+    }
+
+    @Override
+    public Executor executor() {
+        return config.basic().transport().executor();
+    }
+
+    @Override
     public RequestResult request(RequestParameters request) {
+        return decoded(dispatch(request));
+    }
+
+    public CompletableFuture<RequestResult> requestAsync(RequestParameters request) {
+        return dispatchAsync(request).thenApply(this::decoded);
+    }
+
+    // The lines of a response are mapped to models by the caller, as they are read from the stream,
+    // so the mapping decodes list components lazily for clients configured with lazy lists
+    private RequestResult decoded(RequestResult result) {
+        if (! config.basic().lazyLists() || ! (result instanceof RequestResult.Success success)) return result;
+        return new RequestResult.Success(YayMapper.lazyLists(success.stream()));
+    }
+
+    private RequestResult dispatch(RequestParameters request) {
+        var diskKey = diskKey(request);
+        if (diskKey != null && diskCache.get(diskKey) instanceof List<String> lines) return new RequestResult.Success(lines.stream());
+        if (reconnectPolicy(request) instanceof Config.ReconnectPolicy policy) {
+            return reconnecting(request, policy, send(request, null));
+        }
+        var flightKey = flightKey(request);
+        return flightKey == null
+            ? send(request, diskKey)
+            : singleFlight.request(flightKey, () -> send(request, diskKey));
+    }
+
+    private RequestResult send(RequestParameters request, String diskKey) {
+        var cacheKey = cacheKey(request);
+        var cached = cacheKey == null ? null : responseCache.cached(cacheKey);
+        var httpRequest = httpRequest(request, cached);
+        try {
+            return store(diskKey, result(cacheKey, cached, sendWithRetry(request.target(), request.stream(), httpRequest, bodyHandler(request), config.retries())));
+        } catch(Exception e) {
+            if (e instanceof InterruptedException _) Thread.currentThread().interrupt();
+            return failure(httpRequest, e);
+        }
+    }
+
+    private CompletableFuture<RequestResult> dispatchAsync(RequestParameters request) {
+        var diskKey = diskKey(request);
+        if (diskKey != null && diskCache.get(diskKey) instanceof List<String> lines) return CompletableFuture.completedFuture(new RequestResult.Success(lines.stream()));
+        if (reconnectPolicy(request) instanceof Config.ReconnectPolicy policy) {
+            return sendAsync(request, null).thenApply(result -> reconnecting(request, policy, result));
+        }
+        var flightKey = flightKey(request);
+        return flightKey == null
+            ? sendAsync(request, diskKey)
+            : singleFlight.requestAsync(flightKey, () -> sendAsync(request, diskKey));
+    }
+
+    private CompletableFuture<RequestResult> sendAsync(RequestParameters request, String diskKey) {
+        var cacheKey = cacheKey(request);
+        var cached = cacheKey == null ? null : responseCache.cached(cacheKey);
+        var httpRequest = httpRequest(request, cached);
+        return sendAsyncWithRetry(request.target(), request.stream(), httpRequest, bodyHandler(request), config.retries())
+            .handleAsync((httpResponse, throwable) -> throwable == null
+                    ? store(diskKey, result(cacheKey, cached, httpResponse))
+                    : failure(httpRequest, throwable instanceof CompletionException ce && ce.getCause() != null ? ce.getCause() : throwable),
+                    config.basic().transport().executor());
+    }
+
+    private Config.ReconnectPolicy reconnectPolicy(RequestParameters request) {
+        if (! request.stream() || request.parameters().reconnect() == RequestParameters.Reconnect.never) return null;
+        return config.basic().reconnect();
+    }
+
+    private BodyHandler<Stream<String>> bodyHandler(RequestParameters request) {
+        return reconnectPolicy(request) instanceof Config.ReconnectPolicy policy
+            ? LinesBodySubscriber.handler(policy.idleTimeout())
+            : LinesBodySubscriber.handler();
+    }
+
+    // A stream which connected continues over new connections, when its connection ends
+    private RequestResult reconnecting(RequestParameters request, Config.ReconnectPolicy policy, RequestResult result) {
+        if (! (result instanceof RequestResult.Success success)) return result;
+        return new RequestResult.Success(ReconnectingLines.stream(
+                    success.stream(),
+                    () -> send(request, null),
+                    policy,
+                    lanes.get(request.target()),
+                    request.parameters().reconnect(),
+                    config.logging().request()));
+    }
+
+    // Only requests without side effects can share a response
+    private SingleFlight.Key flightKey(RequestParameters request) {
+        if (request.stream() || request.method() != Util.Method.GET) return null;
+        return new SingleFlight.Key(uri(request), request.headers());
+    }
+
+    private ResponseCache.Key cacheKey(RequestParameters request) {
+        if (responseCache == null || request.stream() || request.method() != Util.Method.GET) return null;
+        return ResponseCache.key(uri(request), request.headers(), tokenDigest(authorization()));
+    }
 
-        String baseUri = switch(request.target()) {
-            case api -> config.servers().api().toString();
-            case explorer -> config.servers().explorer().toString();
-            case tablebase -> config.servers().tablebase().toString();
-            case engine -> config.servers().engine().toString();
+    // Lookups in the tablebase and the masters database don't change, so they can be kept across restarts.
+    // The lichess and player databases of the opening explorer grow with every game played.
+    private String diskKey(RequestParameters request) {
+        if (diskCache == null || request.stream() || request.method() != Util.Method.GET) return null;
+        return switch(request.target()) {
+            case tablebase -> DiskCache.key(server(request.target()), request.path());
+            case explorer -> request.path().startsWith("/masters") ? DiskCache.key(server(request.target()), request.path()) : null;
+            default -> null;
         };
+    }
+
+    private RequestResult store(String diskKey, RequestResult result) {
+        if (diskKey == null || ! (result instanceof RequestResult.Success success)) return result;
+        var lines = success.stream().toList();
+        diskCache.put(diskKey, lines);
+        return new RequestResult.Success(lines.stream());
+    }
+
+    private URI server(ServerType target) {
+        return switch(target) {
+            case api -> config.servers().api();
+            case explorer -> config.servers().explorer();
+            case tablebase -> config.servers().tablebase();
+            case engine -> config.servers().engine();
+        };
+    }
+
+    private URI uri(RequestParameters request) {
+        return URI.create(joinUri(server(request.target()).toString(), request.path()));
+    }
+
+    private Optional<String> authorization() {
+        return config instanceof Config.Auth auth
+            ? Optional.of("Bearer " + String.valueOf(auth.token().get()))
+            : Optional.empty();
+    }
+
+    private String tokenDigest(Optional<String> authorization) {
+        if (authorization.isEmpty()) return "";
+        var current = tokenDigest;
+        if (current != null && current.authorization().equals(authorization.get())) return current.digest();
+        var computed = new TokenDigest(authorization.get(), RateLimiter.digest(authorization.get()));
+        tokenDigest = computed;
+        return computed.digest();
+    }
 
-        var uri = URI.create(joinUri(baseUri, request.path()));
+    private HttpRequest httpRequest(RequestParameters request, ResponseCache.Entry cached) {
+
+        var uri = uri(request);
 
         var builder = HttpRequest.newBuilder(uri);
 
@@ -78,13 +240,13 @@ public class InternalClient {
             case HEAD   -> builder.HEAD();
         };
 
-        if (config instanceof Config.Auth auth) {
-            builder.header("authorization", "Bearer " + String.valueOf(auth.token().get()));
-        }
+        authorization().ifPresent(value -> builder.header("authorization", value));
 
         builder.header("user-agent", config.userAgent());
         request.headers().forEach((k,v) -> builder.header(k,v));
 
+        if (cached != null) responseCache.addValidators(cached, builder);
+
         var httpRequest = builder.build();
 
         config.logging().request().info(() -> "### Request: %s %s%nHeaders:%n%s%nBody:%n%s".formatted(
@@ -97,27 +259,27 @@ public class InternalClient {
                     requestBody.isEmpty() ? "<no body>" : requestBody)
                 );
 
-        HttpResponse<Stream<String>> httpResponse;
-        try {
-            httpResponse = sendWithRetry(request.stream(), httpRequest, BodyHandlers.ofLines(), config.retries());
-        } catch(Exception e) {
-            if (e instanceof InterruptedException _) {
-                Thread.currentThread().interrupt();
-            } else {
-                config.logging().request().log(Level.SEVERE, "%s".formatted(httpRequest), e);
-            }
-
-            String message = switch(e) {
-                case Exception ex when ex.getMessage() instanceof String msg -> msg;
-                case ConnectException _ -> "Failed to Connect";
-                default -> e.getClass().getName();
-            };
+        return httpRequest;
+    }
 
-            return new RequestResult.Failure(-1, message);
+    private RequestResult failure(HttpRequest httpRequest, Throwable e) {
+        if (! (e instanceof InterruptedException)) {
+            config.logging().request().log(Level.SEVERE, "%s".formatted(httpRequest), e);
         }
 
+        String message = switch(e) {
+            case Throwable t when t.getMessage() instanceof String msg -> msg;
+            case ConnectException _ -> "Failed to Connect";
+            default -> e.getClass().getName();
+        };
+
+        return new RequestResult.Failure(-1, message);
+    }
+
+    private RequestResult result(ResponseCache.Key cacheKey, ResponseCache.Entry cached, HttpResponse<Stream<String>> httpResponse) {
         var statusCode = httpResponse.statusCode();
-        if (statusCode >= 200 && statusCode <= 299) {
+        var body = cacheKey == null ? null : responseCache.body(cacheKey, cached, httpResponse);
+        if (body != null || (statusCode >= 200 && statusCode <= 299)) {
 
             Supplier<String> msg = () -> {
                 var headers = httpResponse.headers().map().entrySet().stream()
@@ -128,7 +290,7 @@ public class InternalClient {
 
             config.logging().response().info(msg);
 
-            var stream = httpResponse.body()
+            var stream = (body != null ? body : httpResponse.body())
                 .peek(string -> { if (! string.isEmpty()) config.logging().response().info(() -> string); })
                 .filter(Predicate.not("{}"::equals)); // Filter out any keep-alive messages
 
@@ -157,83 +319,140 @@ public class InternalClient {
         }
     }
 
-    private <T> HttpResponse<T> sendWithRetry(boolean stream, HttpRequest httpRequest, BodyHandler<T> bodyHandler, int retries) throws Exception {
+    private <T> HttpResponse<T> sendWithRetry(ServerType target, boolean stream, HttpRequest httpRequest, BodyHandler<T> bodyHandler, int retries) throws Exception {
 
-        var response = sendRequest(stream, httpRequest, bodyHandler);
+        var response = sendRequest(target, stream, httpRequest, bodyHandler);
 
         if (response.statusCode() == 429) {
 
             config.logging().response().warning(() -> "%s".formatted(response));
 
-            if (retries > 0) {
-                // Perform a retry in a minute...
-                throttle429.set(true);
+            // Only requests in the same lane wait for the back-off to end
+            lanes.get(target).backOff(retryAfter(response));
 
-                var builder = HttpRequest.newBuilder(httpRequest, (_,_) -> true);
-                httpRequest.timeout().ifPresent(t -> builder.timeout(t.plusMillis(retryMillis)));
-                var retryHttpRequest = builder.build();
-                return sendWithRetry(stream, retryHttpRequest, bodyHandler, retries-1);
+            if (retries > 0) {
+                return sendWithRetry(target, stream, retryRequest(httpRequest), bodyHandler, retries-1);
             }
         }
 
         return response;
     }
 
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithRetry(ServerType target, boolean stream, HttpRequest httpRequest, BodyHandler<T> bodyHandler, int retries) {
+        return sendRequestAsync(target, stream, httpRequest, bodyHandler).thenCompose(response -> {
+            if (response.statusCode() == 429) {
+
+                config.logging().response().warning(() -> "%s".formatted(response));
+
+                lanes.get(target).backOff(retryAfter(response));
+
+                if (retries > 0) {
+                    return sendAsyncWithRetry(target, stream, retryRequest(httpRequest), bodyHandler, retries-1);
+                }
+            }
+            return CompletableFuture.completedFuture(response);
+        });
+    }
+
+    private HttpRequest retryRequest(HttpRequest httpRequest) {
+        var builder = HttpRequest.newBuilder(httpRequest, (_,_) -> true);
+        httpRequest.timeout().ifPresent(t -> builder.timeout(t.plusMillis(retryMillis)));
+        return builder.build();
+    }
+
+    // The Retry-After header holds either a number of seconds or a date,
+    // and when it is missing the back-off is a minute
+    private Duration retryAfter(HttpResponse<?> response) {
+        var defaultBackOff = Duration.ofMillis(retryMillis);
+        return response.headers().firstValue("retry-after")
+            .map(String::trim)
+            .map(value -> {
+                try {
+                    return Duration.ofSeconds(Long.parseLong(value));
+                } catch (NumberFormatException nfe) {}
+                try {
+                    var date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    return Duration.between(ZonedDateTime.now(), date);
+                } catch (DateTimeParseException dtpe) {}
+                return defaultBackOff;
+            })
+            .map(duration -> duration.isNegative() ? Duration.ZERO : duration)
+            .orElse(defaultBackOff);
+    }
+
     private <T> HttpResponse<T> sendRequest(
+            ServerType target,
             boolean stream,
             HttpRequest httpRequest,
             BodyHandler<T> bodyHandler) throws Exception {
 
-        throttleLock.lock();
+        Runnable release = admit(target, stream, httpRequest);
         try {
-            if (throttle429.get()) {
-                long elapsedSince429 = System.currentTimeMillis() - previousRequestTS.get();
-                long wait = retryMillis - elapsedSince429;
-                if (wait > 0) {
-                    waitingSemaphore.tryAcquire(wait, TimeUnit.MILLISECONDS);
-                }
-                throttle429.set(false);
-            }
+            config.logging().request().fine(() -> "%s".formatted(httpRequest));
+            return httpClient.send(httpRequest, bodyHandler);
         } finally {
-            throttleLock.unlock();
+            release.run();
         }
+    }
 
-        Semaphore semaphore = stream ? streamSemaphore : singleSemaphore;
-
-        boolean burst = false;
-        if ( ! stream ) {
-            burst = burstSemaphore.tryAcquire();
-        }
+    private <T> CompletableFuture<HttpResponse<T>> sendRequestAsync(
+            ServerType target,
+            boolean stream,
+            HttpRequest httpRequest,
+            BodyHandler<T> bodyHandler) {
+
+        // Sent from the executor, as a permit is handed over by the thread which released it,
+        // which may be a thread of the http client completing an earlier response
+        return admitAsync(target, stream, httpRequest)
+            .thenComposeAsync(release -> {
+                config.logging().request().fine(() -> "%s".formatted(httpRequest));
+                return httpClient.sendAsync(httpRequest, bodyHandler)
+                    .whenComplete((_, _) -> release.run());
+            }, config.basic().transport().executor());
+    }
 
-        try {
-            if ( ! burst ) {
-                semaphore.acquire();
+    // Waits until a request may be sent,
+    // returning the action which releases the acquired permit once the request has been sent
+    private Runnable admit(ServerType target, boolean stream, HttpRequest httpRequest) throws InterruptedException {
+        var lane = lanes.get(target);
+        long start = System.nanoTime();
 
-                long elapsedSincePreviousRequest = System.currentTimeMillis() - previousRequestTS.get();
+        long backOff = lane.backOffNanos();
+        if (backOff > 0) TimeUnit.NANOSECONDS.sleep(backOff);
 
-                if (! stream) {
-                    if (elapsedSincePreviousRequest > burstRefillAfterInactivityMillis) {
-                        burstSemaphore.release(NUMBER_OF_BURST_REQUESTS);
-                    }
-                }
+        long reservation = rateLimiter(target, httpRequest).reserve();
+        if (reservation > 0) TimeUnit.NANOSECONDS.sleep(reservation);
 
-                if (elapsedSincePreviousRequest < config.spacing().toMillis()) {
-                    long wait = config.spacing().toMillis() - elapsedSincePreviousRequest;
-                    waitingSemaphore.tryAcquire(wait, TimeUnit.MILLISECONDS);
-                }
-            }
+        lane.waited(System.nanoTime() - start);
+        return lane.acquire(stream);
+    }
 
-            config.logging().request().fine(() -> "%s".formatted(httpRequest));
+    // The back-off and rate limit waits are scheduled with a delayed executor,
+    // and the permit is handed over when it is released,
+    // so no thread is blocked while the request waits
+    private CompletableFuture<Runnable> admitAsync(ServerType target, boolean stream, HttpRequest httpRequest) {
+        var lane = lanes.get(target);
+        var executor = config.basic().transport().executor();
+        long start = System.nanoTime();
+
+        return delay(lane.backOffNanos(), executor)
+            .thenCompose(_ -> delay(rateLimiter(target, httpRequest).reserve(), executor))
+            .thenCompose(_ -> {
+                lane.waited(System.nanoTime() - start);
+                return lane.acquireAsync(stream);
+            });
+    }
 
-            var response = httpClient.send(httpRequest, bodyHandler);
+    private static CompletableFuture<Void> delay(long nanos, Executor executor) {
+        return nanos > 0
+            ? CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, executor))
+            : CompletableFuture.completedFuture(null);
+    }
 
-            previousRequestTS.set(System.currentTimeMillis());
-            return response;
-        } finally {
-            if ( ! burst ) {
-                semaphore.release();
-            }
-        }
+    private RateLimiter rateLimiter(ServerType target, HttpRequest httpRequest) {
+        var limit = config.basic().rateLimits().of(target);
+        return config.basic().transport().rateLimiter(
+                RateLimiter.key(target, limit, tokenDigest(httpRequest.headers().firstValue("authorization"))));
     }
 
     public Many<Scope> fetchScopes(String endpointPath) {
@@ -276,7 +495,7 @@ public class InternalClient {
 
         HttpResponse<Void> response;
         try {
-            response = sendWithRetry(false, httpRequest, BodyHandlers.discarding(), config().retries());
+            response = sendWithRetry(ServerType.api, false, httpRequest, BodyHandlers.discarding(), config().retries());
         } catch (Exception e) {
             if (e instanceof InterruptedException _) {
                 Thread.currentThread().interrupt();
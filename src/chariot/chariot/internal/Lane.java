@@ -0,0 +1,138 @@
+package chariot.internal;
+
+import module java.base;
+
+import chariot.internal.Config.ServerType;
+import chariot.model.ClientMetrics;
+
+/// The requests to one [ServerType], with their own concurrency limits and metrics,
+/// so requests to one server don't queue behind requests to another.
+public final class Lane {
+
+    private final ServerType serverType;
+    private final Permits requestPermits;
+    private final Permits streamPermits;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder streams = new LongAdder();
+    private final LongAdder waitedNanos = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final AtomicLong backOffUntil = new AtomicLong(System.nanoTime());
+
+    Lane(ServerType serverType, Config.Concurrency concurrency) {
+        this.serverType = serverType;
+        requestPermits = new Permits(concurrency.requests());
+        streamPermits = new Permits(concurrency.streams());
+    }
+
+    ServerType serverType() {
+        return serverType;
+    }
+
+    /// Waits for a permit, returning the action which releases it
+    Runnable acquire(boolean stream) throws InterruptedException {
+        Permits permits = stream ? streamPermits : requestPermits;
+        long start = System.nanoTime();
+        var permit = permits.acquire();
+        try {
+            permit.get();
+        } catch (InterruptedException ie) {
+            // The permit may have been handed over just before the interrupt
+            if (! permit.cancel(false)) permits.release();
+            throw ie;
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException(ee.getCause());
+        }
+        return admitted(permits, stream, start);
+    }
+
+    /// Completes with the action which releases the permit once one is available,
+    /// without blocking any thread while waiting
+    CompletableFuture<Runnable> acquireAsync(boolean stream) {
+        Permits permits = stream ? streamPermits : requestPermits;
+        long start = System.nanoTime();
+        return permits.acquire().thenApply(_ -> admitted(permits, stream, start));
+    }
+
+    private Runnable admitted(Permits permits, boolean stream, long start) {
+        waitedNanos.add(System.nanoTime() - start);
+        (stream ? streams : requests).increment();
+        inFlight.incrementAndGet();
+        return () -> {
+            inFlight.decrementAndGet();
+            permits.release();
+        };
+    }
+
+    /// Requests in this lane wait until the duration has passed, after the server indicated throttling
+    void backOff(Duration duration) {
+        throttled.increment();
+        long until = System.nanoTime() + duration.toNanos();
+        backOffUntil.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+    }
+
+    long backOffNanos() {
+        return Math.max(0, backOffUntil.get() - System.nanoTime());
+    }
+
+    void reconnected() {
+        reconnects.increment();
+    }
+
+    void waited(long nanos) {
+        waitedNanos.add(nanos);
+    }
+
+    ClientMetrics.Lane metrics() {
+        return new ClientMetrics.Lane(ClientMetrics.Service.valueOf(serverType.name()),
+                requests.sum(),
+                streams.sum(),
+                inFlight.get(),
+                requestPermits.queued() + streamPermits.queued(),
+                Duration.ofNanos(waitedNanos.sum()),
+                throttled.sum(),
+                reconnects.sum());
+    }
+
+    /// Fair permits, which are handed over in turn to waiting requests as they are released.
+    /// A waiting request is a future, so asynchronous requests don't hold on to a thread while they wait.
+    private static final class Permits {
+
+        private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        private int available;
+
+        Permits(int permits) {
+            available = permits;
+        }
+
+        synchronized CompletableFuture<Void> acquire() {
+            if (available > 0 && waiting.isEmpty()) {
+                available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            var permit = new CompletableFuture<Void>();
+            waiting.addLast(permit);
+            return permit;
+        }
+
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                do next = waiting.pollFirst(); while (next != null && next.isDone());
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            // Completed outside of the lock, as it runs the dependent stages of the request.
+            // A request which was cancelled in the meantime passes the permit on.
+            if (! next.complete(null)) release();
+        }
+
+        synchronized int queued() {
+            return waiting.size();
+        }
+    }
+}
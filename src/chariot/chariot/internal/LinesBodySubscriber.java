@@ -0,0 +1,188 @@
+package chariot.internal;
+
+import module java.base;
+import java.net.http.HttpResponse.*;
+import java.net.http.HttpTimeoutException;
+
+/// Splits a response body into lines directly over the received [ByteBuffer]s,
+/// decoding each line from its UTF-8 bytes exactly once.
+///
+/// Replaces [BodyHandlers#ofLines()], which decodes the body into a character
+/// stream and then copies each line out of a [BufferedReader].
+/// As with [BufferedReader#readLine()], a line ends with `\n`, `\r` or `\r\n`.
+/// The body is read lazily as the stream is consumed,
+/// and closing the stream cancels the subscription.
+/// With an idle timeout, reading fails with a [HttpTimeoutException] when no data is received in time.
+public final class LinesBodySubscriber implements BodySubscriber<Stream<String>> {
+
+    private static final List<ByteBuffer> END = List.of(ByteBuffer.allocate(0));
+
+    private final BlockingQueue<List<ByteBuffer>> received = new LinkedBlockingQueue<>();
+    private final CompletableFuture<Stream<String>> body;
+    private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+    private final Duration idleTimeout;
+    private volatile Throwable failure;
+
+    public static BodyHandler<Stream<String>> handler() {
+        return _ -> new LinesBodySubscriber(null);
+    }
+
+    public static BodyHandler<Stream<String>> handler(Duration idleTimeout) {
+        return _ -> new LinesBodySubscriber(idleTimeout);
+    }
+
+    private LinesBodySubscriber(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        var lines = StreamSupport.stream(new Lines(), false)
+            .onClose(this::cancel);
+        body = CompletableFuture.completedFuture(lines);
+    }
+
+    @Override public CompletionStage<Stream<String>> getBody() { return body; }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (! this.subscription.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override public void onNext(List<ByteBuffer> buffers) { received.offer(buffers); }
+    @Override public void onComplete()                     { received.offer(END); }
+    @Override public void onError(Throwable throwable) {
+        failure = throwable;
+        received.offer(END);
+    }
+
+    private void cancel() {
+        if (subscription.get() instanceof Flow.Subscription s) s.cancel();
+    }
+
+    private final class Lines extends Spliterators.AbstractSpliterator<String> {
+
+        private Iterator<ByteBuffer> buffers = Collections.emptyIterator();
+        private ByteBuffer current;
+        private boolean done;
+        // The last line ended with `\r`, so a `\n` which follows it is part of the same line terminator
+        private boolean skipLineFeed;
+
+        // Bytes of a line which spans more than one buffer
+        private byte[] pending = new byte[256];
+        private int pendingLength;
+
+        Lines() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            while (true) {
+                if (current == null || ! current.hasRemaining()) {
+                    if (buffers.hasNext()) {
+                        current = buffers.next();
+                        continue;
+                    }
+                    if (done || ! awaitBuffers()) {
+                        if (pendingLength == 0) return false;
+                        // Last line, without a line terminator
+                        action.accept(decode(pending, 0, pendingLength));
+                        pendingLength = 0;
+                        return true;
+                    }
+                    continue;
+                }
+
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (current.get(current.position()) == '\n') {
+                        current.position(current.position() + 1);
+                        continue;
+                    }
+                }
+
+                int start = current.position();
+                int limit = current.limit();
+                int newline = -1;
+                for (int i = start; i < limit; i++) {
+                    byte b = current.get(i);
+                    if (b == '\n' || b == '\r') {
+                        newline = i;
+                        break;
+                    }
+                }
+
+                if (newline == -1) {
+                    append(current, start, limit);
+                    current.position(limit);
+                    continue;
+                }
+
+                String line;
+                if (pendingLength == 0) {
+                    line = decode(current, start, newline);
+                } else {
+                    append(current, start, newline);
+                    line = decode(pending, 0, pendingLength);
+                    pendingLength = 0;
+                }
+                skipLineFeed = current.get(newline) == '\r';
+                current.position(newline + 1);
+                action.accept(line);
+                return true;
+            }
+        }
+
+        private boolean awaitBuffers() {
+            List<ByteBuffer> next;
+            try {
+                next = idleTimeout == null
+                    ? received.take()
+                    : received.poll(idleTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted while reading response"));
+            }
+            if (next == null) {
+                done = true;
+                cancel();
+                throw new UncheckedIOException(new HttpTimeoutException("No data received within " + idleTimeout));
+            }
+            if (next == END) {
+                done = true;
+                if (failure instanceof Throwable t) {
+                    throw new UncheckedIOException(t instanceof IOException ioe ? ioe : new IOException(t));
+                }
+                return false;
+            }
+            buffers = next.iterator();
+            subscription.get().request(1);
+            return true;
+        }
+
+        private void append(ByteBuffer buffer, int from, int to) {
+            int length = to - from;
+            if (pendingLength + length > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+            }
+            buffer.get(from, pending, pendingLength, length);
+            pendingLength += length;
+        }
+
+        private String decode(ByteBuffer buffer, int from, int to) {
+            if (buffer.hasArray()) {
+                return decode(buffer.array(), buffer.arrayOffset() + from, to - from);
+            }
+            append(buffer, from, to);
+            var line = decode(pending, 0, pendingLength);
+            pendingLength = 0;
+            return line;
+        }
+
+        private static String decode(byte[] bytes, int offset, int length) {
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package chariot.internal;
+
+import module java.base;
+
+import chariot.model.*;
+
+/// Publishes the entries of a [Many], honoring the demand of its single subscriber.
+///
+/// The entries are pulled from the underlying stream by a task on the executor of the client,
+/// only while there is outstanding demand. A [Fail] is signalled with `onError`,
+/// and cancelling the subscription closes the stream.
+final class ManyPublisher<T> implements Flow.Publisher<T> {
+
+    private final CompletableFuture<Many<T>> many;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    ManyPublisher(CompletableFuture<Many<T>> many, Executor executor) {
+        this.many = many;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (! subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override public void request(long n) {}
+                @Override public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException("Only a single subscriber is supported"));
+            return;
+        }
+        subscriber.onSubscribe(new Subscription(subscriber));
+    }
+
+    private final class Subscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled;
+        private Stream<T> stream;
+        private Iterator<T> iterator;
+
+        Subscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (cancelled) return;
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " entries, must be > 0"));
+                return;
+            }
+            if (demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n) == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            // Let a drain close the stream, unless one is already running
+            if (demand.getAndUpdate(d -> d == 0 ? 1 : d) == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        // Only a single drain is running at a time,
+        // started by the request which made the demand non-zero
+        private void drain() {
+            try {
+                if (cancelled) {
+                    if (stream == null) many.thenAccept(m -> m.stream().close());
+                    else stream.close();
+                    return;
+                }
+                if (iterator == null) {
+                    switch (many.join()) {
+                        case Entries(Stream<T> entries) -> {
+                            stream = entries;
+                            iterator = entries.iterator();
+                        }
+                        case Fail(int status, String message) -> {
+                            cancelled = true;
+                            subscriber.onError(new IOException("%d - %s".formatted(status, message)));
+                            return;
+                        }
+                    }
+                }
+
+                long requested = demand.get();
+                long emitted = 0;
+                while (true) {
+                    while (emitted != requested) {
+                        if (cancelled) {
+                            stream.close();
+                            return;
+                        }
+                        if (! iterator.hasNext()) {
+                            cancelled = true;
+                            stream.close();
+                            subscriber.onComplete();
+                            return;
+                        }
+                        subscriber.onNext(iterator.next());
+                        emitted++;
+                    }
+                    requested = demand.addAndGet(-emitted);
+                    if (requested == 0) return;
+                    emitted = 0;
+                }
+            } catch (Throwable t) {
+                cancelled = true;
+                if (stream != null) stream.close();
+                subscriber.onError(t instanceof CompletionException ce && ce.getCause() != null ? ce.getCause() : t);
+            }
+        }
+    }
+}
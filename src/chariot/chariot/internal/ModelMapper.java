@@ -12,6 +12,8 @@ import chariot.internal.yayson.Parser.*;
 @SuppressWarnings("unchecked")
 public class ModelMapper {
 
+    // Shared by all clients. Clients configured with lazyLists decode list components of models (clocks, analysis, ...)
+    // only when they are accessed, by mapping their responses within YayMapper.lazyLists(Stream)
     private static final YayMapper yayMapper = YayMapper.mapper();
     private static final Map<Class<?>, Function<String, ?>> strToObjMappings = new HashMap<>();
     private static final Map<Class<?>, Function<String, ?>> strToObjArrMappings = new HashMap<>();
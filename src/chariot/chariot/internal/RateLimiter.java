@@ -0,0 +1,55 @@
+package chariot.internal;
+
+import module java.base;
+
+import chariot.internal.Config.ServerType;
+
+/// A token bucket which holds up to `burst` permits and refills one permit per `interval`.
+///
+/// Permits are reserved in arrival order, by advancing a single timestamp,
+/// and the caller then waits until its reservation is due - without holding any lock or permit.
+/// An `interval` of zero disables the limit.
+final class RateLimiter {
+
+    /// Requests to the same server type, using the same token and limit, share a bucket.
+    /// The token is kept as a digest only.
+    record Key(ServerType target, Config.RateLimit limit, String token) {}
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong nextFree;
+
+    RateLimiter(Config.RateLimit limit) {
+        intervalNanos = limit.interval().toNanos();
+        toleranceNanos = (limit.burst() - 1) * intervalNanos;
+        // Starts with a full bucket
+        nextFree = new AtomicLong(System.nanoTime() - toleranceNanos);
+    }
+
+    static Key key(ServerType target, Config.RateLimit limit, String tokenDigest) {
+        return new Key(target, limit, tokenDigest);
+    }
+
+    /// Reserves the next permit, returning the number of nanoseconds until it may be used
+    long reserve() {
+        if (intervalNanos == 0) return 0;
+        long now = System.nanoTime();
+        while (true) {
+            long current = nextFree.get();
+            // Don't accumulate more than a full bucket during inactivity
+            long start = Math.max(current, now - toleranceNanos);
+            if (nextFree.compareAndSet(current, start + intervalNanos)) {
+                return Math.max(0, start - now);
+            }
+        }
+    }
+
+    static String digest(String value) {
+        try {
+            var bytes = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package chariot.internal;
+
+import module java.base;
+import java.util.logging.Logger;
+
+import chariot.internal.RequestParameters.Reconnect;
+import chariot.internal.yayson.Parser;
+import chariot.internal.yayson.Parser.*;
+
+/// The lines of a stream which reconnects when its connection ends or fails,
+/// waiting a jittered exponential back-off before each attempt.
+///
+/// Servers replay current state, such as ongoing games, when a stream connects.
+/// With [Reconnect#dedupe] and [Reconnect#game], the lines at the start of a new connection which were already received
+/// are left out, until the first line which wasn't - later lines are passed on even if they repeat earlier ones.
+/// A game stream forgets the received lines when it receives the full state of the game,
+/// and ends, instead of reconnecting, when its connection ends after the game has finished.
+/// With [Reconnect#snapshots], each snapshot, such as a PGN, is passed on unless an identical snapshot was already received.
+/// Blank lines outside of snapshots are keep-alive messages or separators, and are always passed on.
+///
+/// The stream ends when it is closed, when the server rejects the request,
+/// or after `maxAttempts` connections in a row ended without yielding any new lines.
+final class ReconnectingLines extends Spliterators.AbstractSpliterator<String> {
+
+    private static final int rememberedLines = 1000;
+
+    private static final Set<String> ongoing = Set.of("created", "started");
+
+    private final Supplier<RequestResult> connect;
+    private final Config.ReconnectPolicy policy;
+    private final Lane lane;
+    private final Reconnect mode;
+    private final Logger log;
+
+    private final SequencedSet<String> received = new LinkedHashSet<>();
+    private final Deque<String> pending = new ArrayDeque<>();
+    private final List<String> snapshot = new ArrayList<>();
+    private int blankLines;
+    private Stream<String> stream;
+    private Iterator<String> lines;
+    private boolean replaying;
+    private boolean gameOver;
+    private int attempts;
+    private volatile boolean closed;
+
+    private ReconnectingLines(Stream<String> first, Supplier<RequestResult> connect, Config.ReconnectPolicy policy,
+            Lane lane, Reconnect mode, Logger log) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.connect = connect;
+        this.policy = policy;
+        this.lane = lane;
+        this.mode = mode;
+        this.log = log;
+        this.stream = first;
+        this.lines = first.iterator();
+    }
+
+    static Stream<String> stream(Stream<String> first, Supplier<RequestResult> connect, Config.ReconnectPolicy policy,
+            Lane lane, Reconnect mode, Logger log) {
+        var lines = new ReconnectingLines(first, connect, policy, lane, mode, log);
+        return StreamSupport.stream(lines, false).onClose(lines::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        while (! closed) {
+            if (! pending.isEmpty()) {
+                action.accept(pending.removeFirst());
+                return true;
+            }
+            try {
+                while (pending.isEmpty() && lines.hasNext()) accept(lines.next());
+                if (pending.isEmpty() && ! snapshot.isEmpty()) endSnapshot();
+                if (! pending.isEmpty()) continue;
+                log.info(() -> "Stream of %s ended".formatted(lane.serverType()));
+            } catch (UncheckedIOException e) {
+                log.info(() -> "Stream of %s failed - %s".formatted(lane.serverType(), e.getCause()));
+            }
+            stream.close();
+            // The server ends game streams when the game is over
+            if (gameOver) return false;
+            if (closed || ! reconnect()) return false;
+        }
+        return false;
+    }
+
+    private void accept(String line) {
+        if (mode == Reconnect.snapshots) {
+            acceptSnapshotLine(line);
+            return;
+        }
+
+        if (line.isBlank()) {
+            pending.addLast(line);
+            return;
+        }
+
+        if (mode == Reconnect.game) acceptGameLine(line);
+
+        if (remember(line)) {
+            replaying = false;
+            attempts = 0;
+        } else if (replaying) {
+            return;
+        }
+        pending.addLast(line);
+    }
+
+    private void acceptGameLine(String line) {
+        YayNode node;
+        try {
+            node = Parser.fromString(line);
+        } catch (RuntimeException e) {
+            return;
+        }
+        if (! (node instanceof YayObject event)) return;
+
+        boolean full = "gameFull".equals(event.getString("type"));
+        if (full) received.clear();
+        // The status of the game is at the top of the line, or in the state of a "gameFull" line -
+        // other objects, like players, can have a status of their own
+        var status = status(full && event.value().get("state") instanceof YayObject state ? state : event);
+        if (status != null && ! ongoing.contains(status)) gameOver = true;
+    }
+
+    // "status":"mate" or "status":{"id":30,"name":"mate"}
+    private static String status(YayObject object) {
+        return switch (object.value().get("status")) {
+            case YayString(String name) -> name;
+            case YayObject status -> status.getString("name");
+            case null, default -> null;
+        };
+    }
+
+    // A snapshot ends with two blank lines, like a PGN
+    private void acceptSnapshotLine(String line) {
+        if (line.isBlank() && snapshot.isEmpty()) {
+            pending.addLast(line);
+            return;
+        }
+        snapshot.add(line);
+        blankLines = line.isBlank() ? blankLines + 1 : 0;
+        if (blankLines == 2) endSnapshot();
+    }
+
+    private void endSnapshot() {
+        if (remember(String.join("\n", snapshot))) {
+            pending.addAll(snapshot);
+            attempts = 0;
+        }
+        snapshot.clear();
+        blankLines = 0;
+    }
+
+    private boolean remember(String value) {
+        if (! received.add(value)) return false;
+        if (received.size() > rememberedLines) received.removeFirst();
+        return true;
+    }
+
+    private boolean reconnect() {
+        while (! closed) {
+            attempts++;
+            if (policy.maxAttempts() > 0 && attempts > policy.maxAttempts()) return false;
+            try {
+                TimeUnit.NANOSECONDS.sleep(backOffNanos());
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (closed) return false;
+
+            lane.reconnected();
+            log.info(() -> "Reconnecting stream of %s, attempt %d".formatted(lane.serverType(), attempts));
+            switch (connect.get()) {
+                case RequestResult.Success success -> {
+                    stream = success.stream();
+                    lines = stream.iterator();
+                    replaying = true;
+                    snapshot.clear();
+                    blankLines = 0;
+                    return true;
+                }
+                // The request won't succeed by repeating it
+                case RequestResult.Failure failure when failure.code() >= 400 && failure.code() < 500 && failure.code() != 429 -> {
+                    return false;
+                }
+                case RequestResult.Failure _ -> {}
+            }
+        }
+        return false;
+    }
+
+    // Equal jitter - between half and all of the exponential back-off
+    private long backOffNanos() {
+        long initial = policy.backOff().toNanos();
+        long max = policy.maxBackOff().toNanos();
+        long backOff = initial << Math.min(attempts - 1, 20);
+        if (backOff <= 0 || backOff > max) backOff = max;
+        return ThreadLocalRandom.current().nextLong(backOff / 2, backOff + 1);
+    }
+
+    private void close() {
+        closed = true;
+        stream.close();
+    }
+}
@@ -1,7 +1,23 @@
 package chariot.internal;
 
+import java.util.concurrent.Executor;
+
 public interface RequestHandler {
 
     public RequestResult request(RequestParameters parameters);
 
+    default ResultCache resultCache() {
+        return ResultCache.disabled;
+    }
+
+    // The number of pages to fetch ahead of the page being consumed, when iterating the results of all pages
+    default int pageLookahead() {
+        return 0;
+    }
+
+    // Runs the work of handlers which send several requests concurrently, such as fetching batches of users
+    default Executor executor() {
+        return Config.Transport.defaultExecutor;
+    }
+
 }
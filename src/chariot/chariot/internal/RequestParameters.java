@@ -5,6 +5,8 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Function;
 
 import chariot.Client.Scope;
@@ -25,7 +27,21 @@ public sealed interface RequestParameters {
             Map<String, String> headers,
             Scope scope,
             ServerType target,
-            boolean stream) {}
+            boolean stream,
+            ResultCache.Type cache,
+            Reconnect reconnect) {}
+
+    /// How a stream continues when its connection ends, if reconnecting is enabled
+    public enum Reconnect {
+        /// The stream ends
+        never,
+        /// The stream continues with the snapshots of the new connection, except snapshots which were already received
+        snapshots,
+        /// The stream continues with the lines of the new connection, except replayed lines which were already received
+        dedupe,
+        /// As [#dedupe], for a stream of a game which ends when the game is over
+        game
+    }
 
     public record ReqAck(
             Parameters parameters,
@@ -43,7 +59,11 @@ public sealed interface RequestParameters {
             ) implements RequestParameters {
 
         public One<T> process(RequestHandler handler) {
-            return mapper.apply(handler.request(this));
+            return handler.resultCache().get(this, () -> mapper.apply(handler.request(this)));
+        }
+
+        public CompletableFuture<One<T>> processAsync(AsyncRequestHandler handler) {
+            return handler.resultCache().getAsync(this, () -> handler.request(this).thenApply(mapper));
         }
     }
 
@@ -55,6 +75,16 @@ public sealed interface RequestParameters {
         public Many<T> process(RequestHandler handler) {
             return mapper.apply(handler.request(this));
         }
+
+        public CompletableFuture<Many<T>> processAsync(AsyncRequestHandler handler) {
+            return handler.request(this).thenApply(mapper);
+        }
+
+        // The entries are pulled from the response as the subscriber requests them,
+        // and a failed request is signalled with onError
+        public Flow.Publisher<T> publisher(AsyncRequestHandler handler) {
+            return new ManyPublisher<>(processAsync(handler), handler.executor());
+        }
     }
 
     public Parameters parameters();
@@ -108,6 +138,8 @@ public sealed interface RequestParameters {
         private Scope scope;
         private ServerType target;
         private boolean stream;
+        private ResultCache.Type cache;
+        private Reconnect reconnect = Reconnect.never;
 
         ParamsBuilder(String endpoint, Method method) {
             this.endpoint = Objects.requireNonNull(endpoint);
@@ -124,6 +156,8 @@ public sealed interface RequestParameters {
         public ParamsBuilder scope(Scope scope) { this.scope = scope; return this; }
         public ParamsBuilder serverType(ServerType serverType) { this.target = serverType; return this; }
         public ParamsBuilder stream() { this.stream = true; return this; }
+        public ParamsBuilder cache(ResultCache.Type cache) { this.cache = cache; return this; }
+        public ParamsBuilder reconnect(Reconnect reconnect) { this.reconnect = Objects.requireNonNull(reconnect); return this; }
 
         public Parameters build() {
             var withQueryParameters = Util.urlEncodeWithWorkaround(queryParameters);
@@ -139,7 +173,7 @@ public sealed interface RequestParameters {
                 data = Util.urlEncode(dataMap);
             }
 
-            return new Parameters(path, data, dataInputStream, method, timeout, headers, scope, target, stream);
+            return new Parameters(path, data, dataInputStream, method, timeout, headers, scope, target, stream, cache, reconnect);
         }
     }
 
@@ -0,0 +1,84 @@
+package chariot.internal;
+
+import module java.base;
+import module java.net.http;
+
+import chariot.model.ClientMetrics;
+
+/// Cache of response bodies of GET requests which have an `ETag` or `Last-Modified` validator.
+///
+/// A cached response is revalidated with `If-None-Match`/`If-Modified-Since`,
+/// and a `304 Not Modified` response is served from the cached body which was revalidated,
+/// also if the response has been evicted while the request was in flight.
+/// Responses are keyed by method, URI, request headers such as `Accept`, and token,
+/// so different representations of a resource are cached separately.
+/// The least recently used response is evicted
+/// when the cache holds `maxEntries` responses.
+public final class ResponseCache {
+
+    record Key(String method, URI uri, Map<String, String> headers, String token) {}
+    record Entry(List<String> lines, String etag, String lastModified) {}
+
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                boolean evict = size() > ResponseCache.this.maxEntries;
+                if (evict) evictions.increment();
+                return evict;
+            }
+        };
+    }
+
+    static Key key(URI uri, Map<String, String> headers, String tokenDigest) {
+        return new Key("GET", uri, Map.copyOf(headers), tokenDigest);
+    }
+
+    /// Returns the cached response of the key, or null
+    Entry cached(Key key) {
+        synchronized (entries) { return entries.get(key); }
+    }
+
+    /// Adds the validators of a cached response, if any, to the request
+    void addValidators(Entry entry, HttpRequest.Builder builder) {
+        if (entry == null) return;
+        if (entry.etag() != null) builder.header("If-None-Match", entry.etag());
+        if (entry.lastModified() != null) builder.header("If-Modified-Since", entry.lastModified());
+    }
+
+    /// Returns the cached body if the response is a `304 Not Modified` of the revalidated response,
+    /// which is cached again if it has been evicted meanwhile,
+    /// or the body of a successful response which has been cached.
+    /// Returns null if the response should be handled as is.
+    Stream<String> body(Key key, Entry revalidated, HttpResponse<Stream<String>> response) {
+        if (response.statusCode() == 304 && revalidated != null) {
+            response.body().close();
+            hits.increment();
+            synchronized (entries) { entries.putIfAbsent(key, revalidated); }
+            return revalidated.lines().stream();
+        }
+
+        misses.increment();
+
+        var etag = response.headers().firstValue("etag").orElse(null);
+        var lastModified = response.headers().firstValue("last-modified").orElse(null);
+        if (response.statusCode() != 200 || (etag == null && lastModified == null)) return null;
+
+        var lines = response.body().toList();
+        synchronized (entries) { entries.put(key, new Entry(lines, etag, lastModified)); }
+        return lines.stream();
+    }
+
+    ClientMetrics.Cache stats() {
+        int size;
+        synchronized (entries) { size = entries.size(); }
+        return new ClientMetrics.Cache("responses", hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+}
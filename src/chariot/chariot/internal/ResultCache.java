@@ -0,0 +1,148 @@
+package chariot.internal;
+
+import module java.base;
+
+import chariot.model.*;
+import chariot.model.Enums.Status;
+
+/// Cache of the results of requests to resources which don't change once they exist,
+/// so repeated lookups don't need to send any request.
+///
+/// Each [Type] of resource has its own cache, with a maximum number of entries and an optional time-to-live.
+/// The caches use a segmented LRU policy - a result enters a probation segment, and is promoted to a
+/// protected segment when it is requested again, so results which are only requested once are evicted first.
+public final class ResultCache {
+
+    public enum Type {
+        games,
+        mastersPgn,
+        fidePlayers,
+        tablebase;
+
+        // Only games which have ended don't change
+        boolean cacheable(Object result) {
+            return switch(result) {
+                case Game game -> game.status() != null && game.status() != Status.created && game.status() != Status.started;
+                case PGN pgn   -> ! "*".equals(pgn.tags().getOrDefault("Result", "*"));
+                default        -> true;
+            };
+        }
+    }
+
+    record Key(String path, Map<String, String> headers) {}
+
+    static final ResultCache disabled = new ResultCache(Map.of());
+
+    private final Map<Type, Segments> caches = new EnumMap<>(Type.class);
+
+    ResultCache(Map<Type, Config.ResultCachePolicy> policies) {
+        policies.forEach((type, policy) -> {
+            if (policy.maxEntries() > 0) caches.put(type, new Segments(policy));
+        });
+    }
+
+    /// Returns the cached result of the request, or fetches and caches it
+    <T> One<T> get(RequestParameters request, Supplier<One<T>> fetch) {
+        var type = request.parameters().cache();
+        var segments = type == null ? null : caches.get(type);
+        if (segments == null) return fetch.get();
+
+        var key = new Key(request.path(), request.headers());
+        @SuppressWarnings("unchecked")
+        One<T> cached = (One<T>) segments.get(key);
+        if (cached != null) return cached;
+
+        return store(type, segments, key, fetch.get());
+    }
+
+    /// Returns the cached result of the request, or fetches and caches it without blocking
+    <T> CompletableFuture<One<T>> getAsync(RequestParameters request, Supplier<CompletableFuture<One<T>>> fetch) {
+        var type = request.parameters().cache();
+        var segments = type == null ? null : caches.get(type);
+        if (segments == null) return fetch.get();
+
+        var key = new Key(request.path(), request.headers());
+        @SuppressWarnings("unchecked")
+        One<T> cached = (One<T>) segments.get(key);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        return fetch.get().thenApply(result -> store(type, segments, key, result));
+    }
+
+    private static <T> One<T> store(Type type, Segments segments, Key key, One<T> result) {
+        if (result instanceof Some<T> some && type.cacheable(some.value())) {
+            segments.put(key, result);
+        }
+        return result;
+    }
+
+    List<ClientMetrics.Cache> stats() {
+        return caches.entrySet().stream()
+            .map(e -> e.getValue().stats(e.getKey()))
+            .toList();
+    }
+
+    private static final class Segments {
+        record Entry(Object result, long expires) {}
+
+        private final int probationMax;
+        private final int protectedMax;
+        private final long ttlNanos;
+        private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Key, Entry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        Segments(Config.ResultCachePolicy policy) {
+            protectedMax = policy.maxEntries() * 4 / 5;
+            probationMax = policy.maxEntries() - protectedMax;
+            ttlNanos = policy.ttl().toNanos();
+        }
+
+        synchronized Object get(Key key) {
+            var entry = protectedSegment.get(key);
+            if (entry == null) {
+                entry = probation.remove(key);
+                if (entry != null && ! expired(entry)) {
+                    // Requested again, so promote it and demote the least recently used protected entry
+                    protectedSegment.put(key, entry);
+                    if (protectedSegment.size() > protectedMax) {
+                        var eldest = protectedSegment.pollFirstEntry();
+                        insertProbation(eldest.getKey(), eldest.getValue());
+                    }
+                }
+            }
+
+            if (entry == null || expired(entry)) {
+                if (entry != null) protectedSegment.remove(key);
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.result();
+        }
+
+        synchronized void put(Key key, Object result) {
+            if (protectedSegment.containsKey(key)) return;
+            insertProbation(key, new Entry(result, ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos));
+        }
+
+        private void insertProbation(Key key, Entry entry) {
+            probation.put(key, entry);
+            while (probation.size() > probationMax || probation.size() + protectedSegment.size() > probationMax + protectedMax) {
+                if (probation.pollFirstEntry() == null) break;
+                evictions++;
+            }
+        }
+
+        private boolean expired(Entry entry) {
+            return entry.expires() != 0 && System.nanoTime() - entry.expires() > 0;
+        }
+
+        synchronized ClientMetrics.Cache stats(Type type) {
+            return new ClientMetrics.Cache(type.name(), hits, misses, evictions, probation.size() + protectedSegment.size());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package chariot.internal;
+
+import module java.base;
+
+/// Shares the response of a request with identical requests which are made while it is in flight,
+/// so concurrent callers of the same resource only send one request.
+///
+/// The first caller of a key sends the request, and later callers wait for its response.
+/// Once the response has arrived, the flight takes no more callers.
+/// Only when there are waiting callers is the response body read into memory,
+/// and each caller then gets its own stream of the lines, to parse into its own copy.
+final class SingleFlight {
+
+    record Key(URI uri, Map<String, String> headers) {}
+
+    private static final class Flight {
+        final CompletableFuture<Supplier<RequestResult>> shared = new CompletableFuture<>();
+        int followers;
+        boolean landed;
+
+        synchronized boolean join() {
+            if (landed) return false;
+            followers++;
+            return true;
+        }
+
+        synchronized boolean land() {
+            landed = true;
+            return followers > 0;
+        }
+    }
+
+    private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    RequestResult request(Key key, Supplier<RequestResult> send) {
+        var flight = new Flight();
+        var leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            if (! leader.join()) return send.get();
+            coalesced.increment();
+            return shared(leader);
+        }
+
+        try {
+            return land(key, flight, send.get());
+        } catch (RuntimeException e) {
+            crash(key, flight, e);
+            throw e;
+        }
+    }
+
+    CompletableFuture<RequestResult> requestAsync(Key key, Supplier<CompletableFuture<RequestResult>> send) {
+        var flight = new Flight();
+        var leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            if (! leader.join()) return send.get();
+            coalesced.increment();
+            return leader.shared.thenApply(Supplier::get);
+        }
+
+        return send.get().handle((result, throwable) -> {
+            if (throwable == null) {
+                try {
+                    return land(key, flight, result);
+                } catch (RuntimeException e) {
+                    throwable = e;
+                }
+            }
+            crash(key, flight, throwable);
+            throw throwable instanceof CompletionException ce ? ce : new CompletionException(throwable);
+        });
+    }
+
+    // A waiting caller gets the exception of the leader as the leader got it,
+    // and a checked exception, which only the asynchronous send can complete with, as a failure
+    private static RequestResult shared(Flight flight) {
+        try {
+            return flight.shared.join().get();
+        } catch (CompletionException ce) {
+            switch (ce.getCause()) {
+                case RuntimeException e -> throw e;
+                case Error e -> throw e;
+                case null -> throw ce;
+                case Throwable t -> {
+                    return new RequestResult.Failure(-1, t.getMessage() instanceof String msg ? msg : t.getClass().getName());
+                }
+            }
+        }
+    }
+
+    long coalesced() {
+        return coalesced.sum();
+    }
+
+    private RequestResult land(Key key, Flight flight, RequestResult result) {
+        flights.remove(key, flight);
+        if (! flight.land()) return result;
+
+        Supplier<RequestResult> copies = switch(result) {
+            case RequestResult.Success success -> {
+                var lines = success.stream().toList();
+                yield () -> new RequestResult.Success(lines.stream());
+            }
+            case RequestResult.Failure failure -> () -> failure;
+        };
+        flight.shared.complete(copies);
+        return copies.get();
+    }
+
+    // The waiting callers fail too
+    private void crash(Key key, Flight flight, Throwable throwable) {
+        flights.remove(key, flight);
+        flight.land();
+        flight.shared.completeExceptionally(throwable);
+    }
+}
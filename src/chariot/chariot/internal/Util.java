@@ -109,61 +109,145 @@ public class Util {
         DELETE,
     }
 
+    /// Iterates the results of all pages, starting with an initial page and searching for the following pages.
+    ///
+    /// While the results of the current page are consumed, up to `lookahead` following pages are fetched
+    /// in the background - a lookahead of 0 fetches each page when it is needed.
+    /// The iteration ends at the first empty page, as a failed search is mapped to an empty page.
+    /// When the number of pages is known, the remaining pages can be split into ranges for parallel streams.
     public static class PageSpliterator<T> implements Spliterator<T> {
-        Page<T> page;
-        Function<Integer, Page<T>> search;
 
-        int currentElementIndex = 0;
+        final Function<Integer, Page<T>> search;
+        final int lookahead;
+        final Deque<CompletableFuture<Page<T>>> prefetched;
+        final Integer nbResults;
+        boolean split;
+
+        Page<T> page;
+        int currentElementIndex;
+        // The next page number to fetch, and the last page number (inclusive) or null if unknown
+        int nextPage;
+        Integer lastPage;
+
+        public PageSpliterator(Page<T> page, Function<Integer, Page<T>> search, int lookahead) {
+            this(page, 0, search, lookahead, new ArrayDeque<>(),
+                    page.nextPage() instanceof Integer next ? next : -1,
+                    page.nbPages(),
+                    false,
+                    // The total number of results only sizes the iteration when starting on the first page
+                    page.previousPage() == null ? page.nbResults() : null);
+        }
 
-        public PageSpliterator(Page<T> page, Function<Integer, Page<T>> search) {
+        private PageSpliterator(Page<T> page, int currentElementIndex, Function<Integer, Page<T>> search, int lookahead,
+                Deque<CompletableFuture<Page<T>>> prefetched, int nextPage, Integer lastPage, boolean split, Integer nbResults) {
             this.page = page;
+            this.currentElementIndex = currentElementIndex;
             this.search = search;
+            this.lookahead = lookahead;
+            this.prefetched = prefetched;
+            this.nextPage = nextPage;
+            this.lastPage = lastPage;
+            this.split = split;
+            this.nbResults = nbResults;
         }
 
-        public static <T> PageSpliterator<T> of(Page<T> page, Function<Integer, Page<T>> search) {
-            return new PageSpliterator<>(page, search);
+        public static <T> PageSpliterator<T> of(Page<T> page, Function<Integer, Page<T>> search, int lookahead) {
+            return new PageSpliterator<>(page, search, lookahead);
         }
 
         @Override
         public boolean tryAdvance(Consumer<? super T> action) {
-            try {
-                var currentResults = page.currentPageResults();
-                if (currentElementIndex < currentResults.size()) {
-                    action.accept(currentResults.get(currentElementIndex));
-                    currentElementIndex++;
-                    return true;
-                } else {
-                    if (page.nbPages() instanceof Integer nbPages && page.currentPage() >= nbPages
-                        || page.nextPage() == null) {
-                        return false;
+            while (true) {
+                if (page != null) {
+                    var currentResults = page.currentPageResults();
+                    if (currentElementIndex < currentResults.size()) {
+                        // Keep the following pages loading while this page is consumed
+                        if (currentElementIndex == 0) prefetch();
+                        action.accept(currentResults.get(currentElementIndex));
+                        currentElementIndex++;
+                        return true;
+                    }
+                    // A failed search is mapped to an empty page, which ends the iteration also when the number of pages is known.
+                    // Without a known number of pages, the last page is the one without a next page
+                    if (currentResults.isEmpty() || (lastPage == null && page.nextPage() == null)) {
+                        prefetched.clear();
+                        nextPage = -1;
                     }
-                    currentElementIndex = 0;
-                    page = search.apply(page.nextPage());
-                    return tryAdvance(action);
                 }
 
-            } catch (Exception e) {
-                // ignore
+                if (prefetched.isEmpty()) {
+                    if (! hasMore()) {
+                        page = null;
+                        return false;
+                    }
+                    page = fetch(nextPage++);
+                } else {
+                    page = join(prefetched.removeFirst());
+                }
+                currentElementIndex = 0;
             }
-
-            return false;
         }
 
         @Override
         public Spliterator<T> trySplit() {
-            return null;
+            // Splitting needs a known number of pages, and at least two pages which are not yet fetched
+            if (lastPage == null || nextPage <= 0 || lastPage - nextPage < 1) return null;
+            int mid = nextPage + (lastPage - nextPage) / 2;
+
+            // The prefix keeps the current and prefetched pages
+            var prefix = new PageSpliterator<>(page, currentElementIndex, search, lookahead,
+                    new ArrayDeque<>(prefetched), nextPage, mid, true, null);
+
+            page = null;
+            currentElementIndex = 0;
+            prefetched.clear();
+            nextPage = mid + 1;
+            split = true;
+            return prefix;
         }
 
         @Override
         public long estimateSize() {
-            return page.nbResults() instanceof Integer nb ? nb : Long.MAX_VALUE;
+            if (! split && nbResults instanceof Integer nb) return nb;
+            if (lastPage == null) return Long.MAX_VALUE;
+            long perPage = page != null && page.maxPerPage() instanceof Integer max ? max : 10;
+            long current = page != null ? page.currentPageResults().size() - currentElementIndex : 0;
+            return current + (prefetched.size() + Math.max(0, lastPage - nextPage + 1)) * perPage;
         }
 
         @Override
         public int characteristics() {
-            return page.nbResults() instanceof Integer
-                ? (ORDERED | SIZED)
-                : ORDERED;
+            // Not SIZED even when the number of results is known,
+            // as a failed page ends the iteration before all results are seen
+            return ORDERED;
+        }
+
+        private boolean hasMore() {
+            return nextPage > 0 && (lastPage == null || nextPage <= lastPage);
+        }
+
+        private void prefetch() {
+            // Without a known number of pages, only the page after the current page is known to exist
+            int limit = lastPage == null ? Math.min(lookahead, 1) : lookahead;
+            while (prefetched.size() < limit && hasMore() && (lastPage != null || page.nextPage() != null)) {
+                int pageNum = nextPage++;
+                prefetched.addLast(CompletableFuture.supplyAsync(() -> fetch(pageNum),
+                            runnable -> Thread.ofVirtual().name("chariot-page-" + pageNum).start(runnable)));
+            }
+        }
+
+        private Page<T> fetch(int pageNum) {
+            return search.apply(pageNum);
+        }
+
+        private static <T> Page<T> join(CompletableFuture<Page<T>> future) {
+            try {
+                return future.join();
+            } catch (CompletionException ce) {
+                if (ce.getCause() instanceof RuntimeException re) throw re;
+                if (ce.getCause() instanceof Error e) throw e;
+                throw ce;
+            }
         }
     }
 
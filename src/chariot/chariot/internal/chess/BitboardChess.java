@@ -0,0 +1,155 @@
+package chariot.internal.chess;
+
+import module java.base;
+import module chariot;
+
+import static chariot.internal.chess.BitboardPosition.*;
+
+// Implementation of chess using bitboards (as opposed to the square map of NaiveChess).
+// The position of a board is never modified once the board is created - playing a move plays it on a copy.
+public final class BitboardChess implements Board {
+
+    private final String variant;
+    private final String castlingRights;
+    private final BitboardPosition position;
+
+    private BitboardChess(String variant, String castlingRights, BitboardPosition position) {
+        this.variant = variant;
+        this.castlingRights = castlingRights;
+        this.position = position;
+    }
+
+    public static BitboardChess of(String variant, String fenString) {
+        FEN fen = FEN.parse(fenString);
+        return new BitboardChess(variant, fen.castling(), BitboardPosition.of(variant, fen));
+    }
+
+    static BitboardChess of(String variant, String castlingRights, BitboardPosition position) {
+        return new BitboardChess(variant, castlingRights, new BitboardPosition(position));
+    }
+
+    @Override
+    public Collection<String> validMoves() {
+        int[] moves = new int[256];
+        int n = position.legalMoves(moves);
+        var list = new ArrayList<String>(n);
+        for (int i = 0; i < n; i++) list.add(position.uci(variant, moves[i]));
+        return list;
+    }
+
+    @Override
+    public Board play(Move move) {
+        int internalMove = toInternalMove(move.asString());
+        if (internalMove == -1) return this;
+        return _play(internalMove);
+    }
+
+    @Override public String toUCI(Move move) { return anyToUCI(move.asString()); }
+    @Override public String variant()        { return variant; }
+    @Override public long positionKey()      { return position.key; }
+
+    @Override
+    public String toFEN() {
+        return new FEN.Simple(position.positions(),
+                Side.values()[position.side],
+                castlingRights,
+                position.ep == -1 ? "-" : Bitboards.name(position.ep),
+                position.halfMove,
+                position.fullMove).toString();
+    }
+
+    @Override
+    public String toSAN(Move move) {
+        int internalMove = toInternalMove(move.asString());
+        if (internalMove == -1) return "";
+
+        BitboardChess boardIfPlayed = _play(internalMove);
+        String checkSymbol = boardIfPlayed.position.inCheck()
+            ? (boardIfPlayed.position.legalMoves(new int[256]) == 0 ? "#" : "+")
+            : "";
+
+        int from = from(internalMove);
+        int to = to(internalMove);
+        String target = Bitboards.name(to);
+
+        if (kind(internalMove) == castling) {
+            return (to > from ? "O-O" : "O-O-O") + checkSymbol;
+        }
+
+        boolean capture = kind(internalMove) == enPassant || position.type(to) != -1;
+        String x = capture ? "x" : "";
+        int type = position.type(from);
+
+        return switch(type) {
+            case pawn -> {
+                String file = capture ? Bitboards.name(from).substring(0, 1) : "";
+                String promotion = promotion(internalMove) == 0
+                    ? ""
+                    : "=" + Piece.values()[promotion(internalMove)].toChar(Side.white);
+                yield file + x + target + promotion + checkSymbol;
+            }
+            case king -> "K" + x + target + checkSymbol;
+            default -> {
+                char letter = Piece.values()[type].toChar(Side.white);
+
+                // Other pieces of the same kind which can move to the same square
+                boolean otherPiece = false, sameFile = false, sameRank = false;
+                int[] moves = new int[256];
+                int n = position.legalMoves(moves);
+                for (int i = 0; i < n; i++) {
+                    int other = from(moves[i]);
+                    if (other == from || to(moves[i]) != to || position.type(other) != type) continue;
+                    otherPiece = true;
+                    sameFile |= (other & 7) == (from & 7);
+                    sameRank |= (other >>> 3) == (from >>> 3);
+                }
+
+                String dis = "";
+                if (otherPiece) {
+                    String square = Bitboards.name(from);
+                    if (! sameFile) {
+                        dis = square.substring(0, 1); // specify the file
+                    } else if (! sameRank) {
+                        dis = square.substring(1, 2); // specify the rank
+                    } else {
+                        dis = square;                 // specify both file and rank
+                    }
+                }
+                yield letter + dis + x + target + checkSymbol;
+            }
+        };
+    }
+
+    BitboardChess _play(int move) {
+        var next = new BitboardPosition(position);
+        next.play(move);
+
+        return new BitboardChess(variant, position.remainingCastlingRights(variant, castlingRights, next.castlingRooks), next);
+    }
+
+    int toInternalMove(String moveStr) {
+        return position.move(variant, moveStr);
+    }
+
+    String anyToUCI(String any) {
+        return position.anyToUCI(variant, any);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BitboardChess other
+            && variant.equals(other.variant)
+            && castlingRights.equals(other.castlingRights)
+            && position.equals(other.position);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(variant, castlingRights, position);
+    }
+
+    @Override
+    public String toString() {
+        return "%s %s".formatted(variant, toFEN());
+    }
+}
@@ -0,0 +1,584 @@
+package chariot.internal.chess;
+
+import module java.base;
+import module chariot;
+
+import static chariot.internal.chess.Bitboards.*;
+
+/// A mutable chess position kept as bitboards - one set of squares per piece type and one per side,
+/// together with a mailbox of the piece type on each square.
+///
+/// Piece types and sides are numbered by the ordinals of [Piece] and [Side].
+/// A move is an `int`,
+/// ```
+/// bits 0-5 from, bits 6-11 to, bits 12-14 promotion piece type, bits 15-16 kind
+/// ```
+/// and a castling move goes from the king to the castling rook, as in chess960.
+final class BitboardPosition {
+
+    static final int pawn = 0, knight = 1, bishop = 2, rook = 3, queen = 4, king = 5;
+    static final int white = 0, black = 1;
+
+    static final int normal = 0, enPassant = 1, castling = 2;
+
+    static int move(int from, int to, int promotion, int kind) { return from | to << 6 | promotion << 12 | kind << 15; }
+    static int from(int move)      { return move & 63; }
+    static int to(int move)        { return (move >>> 6) & 63; }
+    static int promotion(int move) { return (move >>> 12) & 7; }
+    static int kind(int move)      { return move >>> 15; }
+
+    final long[] pieces = new long[6];
+    final long[] sides = new long[2];
+    final byte[] squares = new byte[64]; // piece type + 1, or 0 if empty
+
+    int side;
+    int ep = -1;
+    long castlingRooks;
+    int halfMove;
+    int fullMove;
+
+    // Zobrist key of the pieces, side to move, castling rights and en passant file - the clocks are left out,
+    // so the same position reached by different moves has the same key
+    long key;
+
+    BitboardPosition() {}
+
+    BitboardPosition(BitboardPosition position) {
+        System.arraycopy(position.pieces, 0, pieces, 0, 6);
+        System.arraycopy(position.sides, 0, sides, 0, 2);
+        System.arraycopy(position.squares, 0, squares, 0, 64);
+        side = position.side;
+        ep = position.ep;
+        castlingRooks = position.castlingRooks;
+        halfMove = position.halfMove;
+        fullMove = position.fullMove;
+        key = position.key;
+    }
+
+    static BitboardPosition of(String variant, FEN fen) {
+        var position = new BitboardPosition();
+        String[] ranks = fen.positions().split("/");
+        for (int i = 0; i < ranks.length && i < 8; i++) {
+            int file = 0;
+            for (char c : ranks[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    file += c - '0';
+                } else {
+                    if (file < 8 && Piece.fromCharWithSide(c) instanceof Piece.PieceAndSide(Piece piece, Side side)) {
+                        position.put((7 - i) * 8 + file, piece.ordinal(), side.ordinal());
+                    }
+                    file++;
+                }
+            }
+        }
+        position.side = fen.side().ordinal();
+        position.ep = Bitboards.square(fen.ep());
+        position.halfMove = fen.halfMove();
+        position.fullMove = fen.move();
+        for (char c : fen.castling().toCharArray()) {
+            position.castlingRooks |= position.castlingRook(variant, c);
+        }
+        position.key ^= position.stateKey();
+        return position;
+    }
+
+    /// The square of the rook which a castling right of a FEN refers to, or 0 if there is no such rook.
+    /// `KQkq` are the outermost rooks in chess960, and the rooks on the h- and a-files otherwise.
+    long castlingRook(String variant, char c) {
+        int side = Character.isUpperCase(c) ? white : black;
+        long backRank = side == white ? rank1 : rank8;
+        long rooks = pieces[rook] & sides[side] & backRank;
+        long kings = pieces[king] & sides[side] & backRank;
+        char file = Character.toLowerCase(c);
+        return switch(file) {
+            case 'k' -> variant.equals("chess960")
+                ? (kings == 0 ? 0 : Long.highestOneBit(rooks & -(kings << 1)))
+                : rooks & fileH;
+            case 'q' -> variant.equals("chess960")
+                ? (kings == 0 ? 0 : Long.lowestOneBit(rooks & (kings - 1)))
+                : rooks & fileA;
+            default -> file >= 'a' && file <= 'h'
+                ? rooks & (fileA << (file - 'a'))
+                : 0;
+        };
+    }
+
+    void put(int square, int type, int side) {
+        long bit = bit(square);
+        pieces[type] |= bit;
+        sides[side] |= bit;
+        squares[square] = (byte) (type + 1);
+        key ^= Zobrist.pieces[type * 2 + side][square];
+    }
+
+    void remove(int square) {
+        long bit = bit(square);
+        key ^= Zobrist.pieces[(squares[square] - 1) * 2 + ((sides[white] & bit) != 0 ? white : black)][square];
+        pieces[squares[square] - 1] &= ~bit;
+        sides[white] &= ~bit;
+        sides[black] &= ~bit;
+        squares[square] = 0;
+    }
+
+    // The part of the key which isn't the pieces.
+    // The en passant file only counts if a pawn can capture en passant, whether or not a FEN mentions it.
+    private long stateKey() {
+        long stateKey = side == black ? Zobrist.blackToMove : 0;
+        for (long rooks = castlingRooks; rooks != 0; rooks &= rooks - 1) {
+            stateKey ^= Zobrist.castling[Long.numberOfTrailingZeros(rooks)];
+        }
+        if (ep != -1 && (pawnAttacks[side ^ 1][ep] & pieces[pawn] & sides[side]) != 0) {
+            stateKey ^= Zobrist.enPassant[ep & 7];
+        }
+        return stateKey;
+    }
+
+    /// The piece type on the square, or -1 if it is empty
+    int type(int square) {
+        return squares[square] - 1;
+    }
+
+    int kingSquare(int side) {
+        long kings = pieces[king] & sides[side];
+        return kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    /// The pieces of a side which attack a square, given the occupied squares.
+    /// Pieces which aren't in `occupied` don't attack, so captured pieces can be left out of it.
+    long attackers(int square, int by, long occupied) {
+        long them = sides[by] & occupied;
+        return (pawnAttacks[by ^ 1][square] & pieces[pawn] & them)
+             | (knightAttacks[square] & pieces[knight] & them)
+             | (kingAttacks[square] & pieces[king] & them)
+             | (bishopAttacks(square, occupied) & (pieces[bishop] | pieces[queen]) & them)
+             | (rookAttacks(square, occupied) & (pieces[rook] | pieces[queen]) & them);
+    }
+
+    boolean inCheck() {
+        int kingSquare = kingSquare(side);
+        return kingSquare != -1 && attackers(kingSquare, side ^ 1, sides[white] | sides[black]) != 0;
+    }
+
+    /// Fills `moves` with the legal moves, and returns the number of moves.
+    /// The array must have room for all moves, 256 is enough for any position.
+    int legalMoves(int[] moves) {
+        int us = side;
+        int them = us ^ 1;
+        long own = sides[us];
+        long enemy = sides[them];
+        long occupied = own | enemy;
+        int kingSquare = kingSquare(us);
+        int n = 0;
+
+        long checkers = 0;
+        long pinned = 0;
+        if (kingSquare != -1) {
+            checkers = attackers(kingSquare, them, occupied);
+            pinned = pinned(kingSquare, us, occupied);
+
+            long withoutKing = occupied ^ bit(kingSquare);
+            for (long targets = kingAttacks[kingSquare] & ~own; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (attackers(to, them, withoutKing) == 0) moves[n++] = move(kingSquare, to, 0, normal);
+            }
+            if (Long.bitCount(checkers) > 1) return n;
+        }
+
+        // When in check, the other pieces must capture the checker or block it
+        long evasions = checkers == 0 ? ~0L : checkers | between[kingSquare][Long.numberOfTrailingZeros(checkers)];
+
+        for (long from = own & ~pieces[pawn] & ~pieces[king]; from != 0; from &= from - 1) {
+            int square = Long.numberOfTrailingZeros(from);
+            long attacks = switch(type(square)) {
+                case knight -> knightAttacks[square];
+                case bishop -> bishopAttacks(square, occupied);
+                case rook   -> rookAttacks(square, occupied);
+                default     -> bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+            };
+            long targets = attacks & ~own & evasions;
+            if ((pinned & bit(square)) != 0) targets &= line[kingSquare][square];
+            for (; targets != 0; targets &= targets - 1) {
+                moves[n++] = move(square, Long.numberOfTrailingZeros(targets), 0, normal);
+            }
+        }
+
+        int forward = us == white ? 8 : -8;
+        long startRank = us == white ? rank1 << 8 : rank8 >>> 8;
+        for (long from = own & pieces[pawn]; from != 0; from &= from - 1) {
+            int square = Long.numberOfTrailingZeros(from);
+            long allowed = evasions;
+            if ((pinned & bit(square)) != 0) allowed &= line[kingSquare][square];
+
+            int to = square + forward;
+            if (to >= 0 && to < 64 && (occupied & bit(to)) == 0) {
+                if ((allowed & bit(to)) != 0) n = pawnMoves(moves, n, square, to);
+                int twoForward = to + forward;
+                if ((startRank & bit(square)) != 0 && (occupied & bit(twoForward)) == 0 && (allowed & bit(twoForward)) != 0) {
+                    moves[n++] = move(square, twoForward, 0, normal);
+                }
+            }
+            for (long captures = pawnAttacks[us][square] & enemy & allowed; captures != 0; captures &= captures - 1) {
+                n = pawnMoves(moves, n, square, Long.numberOfTrailingZeros(captures));
+            }
+            if (ep != -1 && (pawnAttacks[us][square] & bit(ep)) != 0 && enPassantIsLegal(square, kingSquare)) {
+                moves[n++] = move(square, ep, 0, enPassant);
+            }
+        }
+
+        if (checkers == 0 && kingSquare != -1) {
+            n = castlings(moves, n, kingSquare, occupied);
+        }
+        return n;
+    }
+
+    private int pawnMoves(int[] moves, int n, int from, int to) {
+        if (((rank1 | rank8) & bit(to)) != 0) {
+            for (int promotion = knight; promotion <= queen; promotion++) {
+                moves[n++] = move(from, to, promotion, normal);
+            }
+        } else {
+            moves[n++] = move(from, to, 0, normal);
+        }
+        return n;
+    }
+
+    // The pieces of the side which are the only piece between their king and an enemy slider
+    private long pinned(int kingSquare, int us, long occupied) {
+        long snipers = ((rookAttacks(kingSquare, 0) & (pieces[rook] | pieces[queen]))
+                      | (bishopAttacks(kingSquare, 0) & (pieces[bishop] | pieces[queen]))) & sides[us ^ 1];
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = between[kingSquare][Long.numberOfTrailingZeros(snipers)] & occupied;
+            if (Long.bitCount(blockers) == 1) pinned |= blockers & sides[us];
+        }
+        return pinned;
+    }
+
+    // Two pawns leave the rank of the king at once, so check the position after the capture as a whole
+    private boolean enPassantIsLegal(int from, int kingSquare) {
+        int captured = ep + (side == white ? -8 : 8);
+        if ((pieces[pawn] & sides[side ^ 1] & bit(captured)) == 0) return false;
+        if (kingSquare == -1) return true;
+        long occupied = ((sides[white] | sides[black]) ^ bit(from) ^ bit(captured)) | bit(ep);
+        return attackers(kingSquare, side ^ 1, occupied) == 0;
+    }
+
+    private int castlings(int[] moves, int n, int kingSquare, long occupied) {
+        int us = side;
+        int backRank = us == white ? 0 : 56;
+        if ((kingSquare & 56) != backRank) return n;
+
+        for (long rooks = castlingRooks & pieces[rook] & sides[us] & (rank1 << backRank); rooks != 0; rooks &= rooks - 1) {
+            int rookSquare = Long.numberOfTrailingZeros(rooks);
+            boolean kingside = rookSquare > kingSquare;
+            int kingTo = backRank + (kingside ? 6 : 2);
+            int rookTo = backRank + (kingside ? 5 : 3);
+
+            // Only the castling king and rook may stand on the squares they pass
+            long withoutCastlers = occupied ^ bit(kingSquare) ^ bit(rookSquare);
+            long path = between[kingSquare][kingTo] | bit(kingTo) | between[rookSquare][rookTo] | bit(rookTo);
+            if ((path & withoutCastlers) != 0) continue;
+
+            // and the king may not pass through check
+            boolean attacked = false;
+            for (long passed = between[kingSquare][kingTo] | bit(kingTo); passed != 0 && ! attacked; passed &= passed - 1) {
+                attacked = attackers(Long.numberOfTrailingZeros(passed), us ^ 1, withoutCastlers) != 0;
+            }
+            if (! attacked) moves[n++] = move(kingSquare, rookSquare, 0, castling);
+        }
+        return n;
+    }
+
+    /// Plays a legal move
+    // Whether the move is well-formed and moves a piece of the side to move - it may still be illegal
+    boolean playable(int move) {
+        return move >= 0
+            && kind(move) <= castling
+            && promotion(move) <= queen
+            && (sides[side] & bit(from(move))) != 0;
+    }
+
+    void play(int move) {
+        int from = from(move);
+        int to = to(move);
+        int us = side;
+        int type = type(from);
+        boolean capture = false;
+        int nextEp = -1;
+        key ^= stateKey();
+        castlingRooks = castlingRooksAfter(move);
+
+        switch(kind(move)) {
+            case castling -> {
+                int backRank = from & 56;
+                boolean kingside = to > from;
+                remove(from);
+                remove(to);
+                put(backRank + (kingside ? 6 : 2), king, us);
+                put(backRank + (kingside ? 5 : 3), rook, us);
+            }
+            case enPassant -> {
+                remove(from);
+                remove(to + (us == white ? -8 : 8));
+                put(to, pawn, us);
+                capture = true;
+            }
+            default -> {
+                if (squares[to] != 0) {
+                    remove(to);
+                    capture = true;
+                }
+                remove(from);
+                put(to, promotion(move) != 0 ? promotion(move) : type, us);
+
+                // Only note the en passant square if an enemy pawn is next to the pawn
+                if (type == pawn && Math.abs(to - from) == 16) {
+                    long beside = ((bit(to) << 1) & ~fileA) | ((bit(to) >>> 1) & ~fileH);
+                    if ((beside & pieces[pawn] & sides[us ^ 1]) != 0) nextEp = (from + to) / 2;
+                }
+            }
+        }
+
+
+        halfMove = type == pawn || capture ? 0 : halfMove + 1;
+        if (us == black) fullMove++;
+        ep = nextEp;
+        side = us ^ 1;
+        key ^= stateKey();
+    }
+
+    /// The castling rooks which keep their castling rights after a move - none of a king which moves,
+    /// and not a rook which moves or is captured
+    long castlingRooksAfter(int move) {
+        long rooks = castlingRooks & ~(bit(from(move)) | bit(to(move)));
+        return type(from(move)) == king
+            ? rooks & ~(side == white ? rank1 : rank8)
+            : rooks;
+    }
+
+    /// The piece type which a legal move captures, or -1
+    int captured(int move) {
+        return switch(kind(move)) {
+            case castling  -> -1;
+            case enPassant -> pawn;
+            default        -> type(to(move));
+        };
+    }
+
+    /// Takes back a move played with [#play(int)], given what it captured and the state before it was played
+    void unplay(int move, int captured, int previousEp, long previousCastlingRooks, int previousHalfMove) {
+        int from = from(move);
+        int to = to(move);
+        int us = side ^ 1;
+        key ^= stateKey();
+
+        switch(kind(move)) {
+            case castling -> {
+                int backRank = from & 56;
+                boolean kingside = to > from;
+                remove(backRank + (kingside ? 6 : 2));
+                remove(backRank + (kingside ? 5 : 3));
+                put(from, king, us);
+                put(to, rook, us);
+            }
+            case enPassant -> {
+                remove(to);
+                put(from, pawn, us);
+                put(to + (us == white ? -8 : 8), pawn, us ^ 1);
+            }
+            default -> {
+                int type = promotion(move) != 0 ? pawn : type(to);
+                remove(to);
+                put(from, type, us);
+                if (captured != -1) put(to, captured, us ^ 1);
+            }
+        }
+
+        if (us == black) fullMove--;
+        halfMove = previousHalfMove;
+        castlingRooks = previousCastlingRooks;
+        ep = previousEp;
+        side = us;
+        key ^= stateKey();
+    }
+
+    /// The castling rights of a FEN which remain when the castling rooks are reduced to `castlingRooks`,
+    /// in the notation of the FEN
+    String remainingCastlingRights(String variant, String rights, long castlingRooks) {
+        if (castlingRooks == this.castlingRooks) return rights;
+        var sb = new StringBuilder(rights.length());
+        for (char c : rights.toCharArray()) {
+            long rook = castlingRook(variant, c);
+            if (rook != 0 && (castlingRooks & rook) != 0) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /// The legal move which a UCI or SAN move refers to, or -1 if there is none
+    int move(String variant, String moveStr) {
+        String uci = anyToUCI(variant, moveStr);
+        if (uci.length() < 4) return -1;
+
+        int from = Bitboards.square(uci.substring(0,2));
+        int to = Bitboards.square(uci.substring(2,4));
+        int promotion = uci.length() == 5
+            ? switch(uci.charAt(4)) {
+                case 'n' -> knight;
+                case 'b' -> bishop;
+                case 'r' -> rook;
+                default  -> queen;
+            }
+            : 0;
+
+        int[] moves = new int[256];
+        int n = legalMoves(moves);
+        for (int i = 0; i < n; i++) {
+            int move = moves[i];
+            if (kind(move) != castling && from(move) == from && to(move) == to && promotion(move) == promotion) return move;
+        }
+        // The king can castle by moving onto the rook, or to its final square
+        for (int i = 0; i < n; i++) {
+            int move = moves[i];
+            if (kind(move) == castling && from(move) == from && (to(move) == to || castlingKingTo(move) == to)) return move;
+        }
+        return -1;
+    }
+
+    static int castlingKingTo(int move) {
+        return (from(move) & 56) + (to(move) > from(move) ? 6 : 2);
+    }
+
+    String uci(String variant, int move) {
+        int to = kind(move) == castling && variant.equals("standard")
+            ? castlingKingTo(move)
+            : to(move);
+        String uci = Bitboards.name(from(move)) + Bitboards.name(to);
+        return promotion(move) == 0
+            ? uci
+            : uci + Piece.values()[promotion(move)].toChar(Side.black);
+    }
+
+    String anyToUCI(String variant, String any) {
+        char[] chars = any.toCharArray();
+
+        // check if already uci
+        if (chars.length >= 4 &&
+                chars[0] >= 'a' && chars[0] <= 'h' &&
+                chars[1] >= '1' && chars[1] <= '8' &&
+                chars[2] >= 'a' && chars[2] <= 'h' &&
+                chars[3] >= '1' && chars[3] <= '8') {
+            return any;
+        }
+
+        // Not UCI format, maybe SAN, i.e
+        // "Nf3", "e4", "exd5", "O-O", "0-0"
+        // "Qxf7+", "Qf7#"
+        // "Rad1"
+
+        String move = any.replace("x", "").replace("#", "").replace("+", "");
+
+        int[] moves = new int[256];
+        int n = legalMoves(moves);
+
+        switch (move) {
+            case "O-O", "0-0", "O-O-O", "0-0-0" -> {
+                boolean kingside = move.length() == 3;
+                for (int i = 0; i < n; i++) {
+                    if (kind(moves[i]) == castling && (to(moves[i]) > from(moves[i])) == kingside) {
+                        // king-onto-rook
+                        return Bitboards.name(from(moves[i])) + Bitboards.name(to(moves[i]));
+                    }
+                }
+                return "";
+            }
+        }
+
+        if (move.length() < 2) return "";
+
+        char first = move.charAt(0);
+        int type;
+        String promotion = "";
+        if (first >= 'a' && first <= 'h') {
+            // pawn move, a1=Q -> a2a1q
+            type = pawn;
+            if (move.contains("=")) {
+                promotion = move.substring(move.indexOf("=")+1).toLowerCase(Locale.ROOT);
+                move = move.substring(0, move.indexOf("="));
+            }
+        } else if (Piece.fromChar(first) instanceof Piece piece && piece != Piece.pawn && Character.isUpperCase(first)) {
+            type = piece.ordinal();
+        } else {
+            return "";
+        }
+
+        if (move.length() < 2) return "";
+        int to = Bitboards.square(move.substring(move.length()-2));
+        if (to == -1) return "";
+
+        // Check disambiguation: |file| or |rank| or |fileandrank|
+        // Q|h|e1 or Q|4|e1 or Q|h4|e1, and the file of a pawn, e|d5
+        String disambiguation = type == pawn
+            ? move.substring(0, 1)
+            : move.substring(1, move.length()-2);
+
+        if (disambiguation.length() == 2) {
+            return disambiguation + Bitboards.name(to);
+        }
+
+        for (int i = 0; i < n; i++) {
+            int candidate = moves[i];
+            int from = from(candidate);
+            if (type(from) != type) continue;
+            int candidateTo = kind(candidate) == castling && variant.equals("standard")
+                ? castlingKingTo(candidate)
+                : to(candidate);
+            if (candidateTo != to) continue;
+            if (disambiguation.length() == 1) {
+                char fileOrRank = disambiguation.charAt(0);
+                if (fileOrRank >= '1' && fileOrRank <= '8'
+                        ? (from >>> 3) != fileOrRank - '1'
+                        : (from & 7) != fileOrRank - 'a') continue;
+            }
+            return Bitboards.name(from) + Bitboards.name(to) + promotion;
+        }
+        return "";
+    }
+
+    String positions() {
+        var sb = new StringBuilder(72);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int square = rank * 8 + file;
+                if (squares[square] == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) sb.append(empty);
+                empty = 0;
+                Side color = (sides[white] & bit(square)) != 0 ? Side.white : Side.black;
+                sb.append(Piece.values()[type(square)].toChar(color));
+            }
+            if (empty > 0) sb.append(empty);
+            if (rank > 0) sb.append('/');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BitboardPosition other
+            && Arrays.equals(pieces, other.pieces)
+            && Arrays.equals(sides, other.sides)
+            && side == other.side
+            && ep == other.ep
+            && castlingRooks == other.castlingRooks
+            && halfMove == other.halfMove
+            && fullMove == other.fullMove;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(pieces), Arrays.hashCode(sides), side, ep, castlingRooks, halfMove, fullMove);
+    }
+}
@@ -0,0 +1,105 @@
+package chariot.internal.chess;
+
+/// Precomputed attack tables for a board of 64 squares, numbered `a1 = 0, b1 = 1, ... h8 = 63`,
+/// where a set of squares is a `long` with bit `i` set for square `i`.
+///
+/// Sliding attacks are looked up ray by ray - a ray from a square is cut off at its first occupied square,
+/// which is found with a bit scan of the occupied squares of the ray, so no magic multiplication tables are needed.
+final class Bitboards {
+
+    private Bitboards() {}
+
+    static final long fileA = 0x0101010101010101L;
+    static final long fileH = fileA << 7;
+    static final long rank1 = 0xFFL;
+    static final long rank8 = rank1 << 56;
+
+    static final long[] knightAttacks  = new long[64];
+    static final long[] kingAttacks    = new long[64];
+    static final long[][] pawnAttacks  = new long[2][64];
+
+    // The squares strictly between two squares on a line, and the whole line through them
+    static final long[][] between      = new long[64][64];
+    static final long[][] line         = new long[64][64];
+
+    // Directions N, E, NE, NW go towards higher square numbers, and their opposites S, W, SW, SE towards lower
+    private static final int[] rankSteps = { 1, 0, 1,  1, -1,  0, -1, -1 };
+    private static final int[] fileSteps = { 0, 1, 1, -1,  0, -1, -1,  1 };
+    private static final long[][] rays   = new long[8][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int rank = square >>> 3;
+            int file = square & 7;
+            knightAttacks[square]  = steps(rank, file, 1, 2, 2, 1, 2, -1, 1, -2, -1, -2, -2, -1, -2, 1, -1, 2);
+            kingAttacks[square]    = steps(rank, file, 1, -1, 1, 0, 1, 1, 0, -1, 0, 1, -1, -1, -1, 0, -1, 1);
+            pawnAttacks[0][square] = steps(rank, file, 1, -1, 1, 1);
+            pawnAttacks[1][square] = steps(rank, file, -1, -1, -1, 1);
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = 0;
+                for (int r = rank + rankSteps[dir], f = file + fileSteps[dir];
+                        r >= 0 && r < 8 && f >= 0 && f < 8;
+                        r += rankSteps[dir], f += fileSteps[dir]) {
+                    ray |= bit(r * 8 + f);
+                }
+                rays[dir][square] = ray;
+            }
+        }
+        for (int from = 0; from < 64; from++) {
+            for (int dir = 0; dir < 8; dir++) {
+                int opposite = (dir + 4) & 7;
+                for (long ray = rays[dir][from]; ray != 0; ray &= ray - 1) {
+                    int to = Long.numberOfTrailingZeros(ray);
+                    between[from][to] = rays[dir][from] & rays[opposite][to];
+                    line[from][to] = rays[dir][from] | rays[opposite][from] | bit(from);
+                }
+            }
+        }
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return ray(0, square, occupied) | ray(1, square, occupied)
+             | ray(4, square, occupied) | ray(5, square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return ray(2, square, occupied) | ray(3, square, occupied)
+             | ray(6, square, occupied) | ray(7, square, occupied);
+    }
+
+    private static long ray(int dir, int square, long occupied) {
+        long ray = rays[dir][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) return ray;
+        int blocker = dir < 4
+            ? Long.numberOfTrailingZeros(blockers)
+            : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ rays[dir][blocker];
+    }
+
+    private static long steps(int rank, int file, int... deltas) {
+        long attacks = 0;
+        for (int i = 0; i < deltas.length; i += 2) {
+            int r = rank + deltas[i];
+            int f = file + deltas[i+1];
+            if (r >= 0 && r < 8 && f >= 0 && f < 8) attacks |= bit(r * 8 + f);
+        }
+        return attacks;
+    }
+
+    static String name(int square) {
+        return "%c%d".formatted((char) ('a' + (square & 7)), (square >>> 3) + 1);
+    }
+
+    /// The number of a square name like `e4`, or -1 if it isn't one
+    static int square(String name) {
+        if (name == null || name.length() != 2) return -1;
+        int file = name.charAt(0) - 'a';
+        int rank = name.charAt(1) - '1';
+        return file >= 0 && file < 8 && rank >= 0 && rank < 8 ? rank * 8 + file : -1;
+    }
+}
@@ -0,0 +1,46 @@
+package chariot.internal.chess;
+
+import module java.base;
+import module chariot;
+
+/// The board providers found by the [ServiceLoader], by variant.
+/// They are looked up on first use and kept until [#reload()].
+public final class BoardProviders {
+
+    private BoardProviders() {}
+
+    private static volatile Map<String, BoardProvider> providers;
+
+    public static Map<String, BoardProvider> providers() {
+        var current = providers;
+        if (current == null) {
+            synchronized (BoardProviders.class) {
+                current = providers;
+                if (current == null) {
+                    current = load();
+                    providers = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static void reload() {
+        var reloaded = load();
+        synchronized (BoardProviders.class) {
+            providers = reloaded;
+        }
+    }
+
+    private static Map<String, BoardProvider> load() {
+        return ServiceLoader.load(BoardProvider.class).stream()
+            .map(ServiceLoader.Provider::get)
+            // Sort so that InternalBoardProvider ends up last,
+            // so that a user provided provider will be used instead
+            .sorted(Comparator.comparing(provider -> provider instanceof InternalBoardProvider))
+            .<Map.Entry<String, BoardProvider>>mapMulti((provider, mapper) ->
+                    provider.supportedVariants().stream().forEach(str ->
+                        mapper.accept(Map.entry(str, provider))))
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue, (firstMapping, _) -> firstMapping));
+    }
+}
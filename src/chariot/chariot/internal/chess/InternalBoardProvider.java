@@ -6,8 +6,16 @@ import module chariot;
 
 public class InternalBoardProvider implements Chess960BoardProvider {
 
-    private static final InternalBoardProvider instance = new InternalBoardProvider();
+    private static final InternalBoardProvider instance = new InternalBoardProvider(BitboardChess::of);
+    private static final InternalBoardProvider naive    = new InternalBoardProvider(NaiveChess::of);
     public static InternalBoardProvider provider() { return instance; }
+    public static InternalBoardProvider naive()    { return naive; }
+
+    private final BiFunction<String, String, Board> factory;
+
+    private InternalBoardProvider(BiFunction<String, String, Board> factory) {
+        this.factory = factory;
+    }
 
     @Override
     public Set<String> supportedVariants() {
@@ -29,9 +37,9 @@ public class InternalBoardProvider implements Chess960BoardProvider {
     @Override
     public Board fromFEN(String variant, String fen) {
         return switch(variant) {
-            case "standard"     -> NaiveChess.of(variant, fen);
-            case "chess960"     -> NaiveChess.of(variant, fen);
-            case "fromPosition" -> NaiveChess.of(variant, fen);
+            case "standard"     -> factory.apply(variant, fen);
+            case "chess960"     -> factory.apply(variant, fen);
+            case "fromPosition" -> factory.apply(variant, fen);
             default -> null;
         };
     }
@@ -0,0 +1,97 @@
+package chariot.internal.chess;
+
+import module java.base;
+import module chariot;
+
+import static chariot.internal.chess.BitboardPosition.*;
+
+// A Position of a BitboardPosition and a stack of what is needed to take back its moves.
+// The stack grows by doubling, so playing moves doesn't allocate once it has grown to the depth of use.
+public final class InternalPosition implements Position {
+
+    private final String variant;
+    private final BitboardPosition position;
+
+    private String castlingRights;
+
+    private int plies;
+    private int[] moves = new int[64];
+    private int[] captures = new int[64];
+    private int[] eps = new int[64];
+    private int[] halfMoves = new int[64];
+    private long[] castlingRooks = new long[64];
+    private String[] previousCastlingRights = new String[64];
+
+    private InternalPosition(String variant, String castlingRights, BitboardPosition position) {
+        this.variant = variant;
+        this.castlingRights = castlingRights;
+        this.position = position;
+    }
+
+    static final Set<String> variants = Set.of("standard", "chess960", "fromPosition");
+
+    public static InternalPosition of(String variant, String fenString) {
+        if (! variants.contains(variant)) {
+            throw new IllegalArgumentException("Unsupported variant %s - supported are standard, chess960 and fromPosition".formatted(variant));
+        }
+        FEN fen = FEN.parse(fenString);
+        return new InternalPosition(variant, fen.castling(), BitboardPosition.of(variant, fen));
+    }
+
+    @Override
+    public int legalMoves(int[] moves) {
+        return position.legalMoves(moves);
+    }
+
+    @Override
+    public void makeMove(int move) {
+        if (! position.playable(move)) {
+            throw new IllegalArgumentException("Not a move of the side to move: %d in %s".formatted(move, this));
+        }
+        if (plies == moves.length) grow();
+        moves[plies] = move;
+        captures[plies] = position.captured(move);
+        eps[plies] = position.ep;
+        halfMoves[plies] = position.halfMove;
+        castlingRooks[plies] = position.castlingRooks;
+        previousCastlingRights[plies] = castlingRights;
+        plies++;
+
+        castlingRights = position.remainingCastlingRights(variant, castlingRights, position.castlingRooksAfter(move));
+        position.play(move);
+    }
+
+    @Override
+    public void unmakeMove() {
+        if (plies == 0) throw new IllegalStateException("No move to take back");
+        plies--;
+        position.unplay(moves[plies], captures[plies], eps[plies], castlingRooks[plies], halfMoves[plies]);
+        castlingRights = previousCastlingRights[plies];
+        previousCastlingRights[plies] = null;
+    }
+
+    @Override public int plies()                 { return plies; }
+    @Override public int move(String uciOrSan)   { return position.move(variant, uciOrSan); }
+    @Override public String toUCI(int move)      { return position.uci(variant, move); }
+    @Override public String variant()            { return variant; }
+    @Override public Side sideToMove()           { return Side.values()[position.side]; }
+    @Override public boolean inCheck()           { return position.inCheck(); }
+    @Override public long positionKey()          { return position.key; }
+    @Override public Board toBoard()             { return BitboardChess.of(variant, castlingRights, position); }
+    @Override public String toFEN()              { return toBoard().toFEN(); }
+
+    private void grow() {
+        int size = moves.length * 2;
+        moves = Arrays.copyOf(moves, size);
+        captures = Arrays.copyOf(captures, size);
+        eps = Arrays.copyOf(eps, size);
+        halfMoves = Arrays.copyOf(halfMoves, size);
+        castlingRooks = Arrays.copyOf(castlingRooks, size);
+        previousCastlingRights = Arrays.copyOf(previousCastlingRights, size);
+    }
+
+    @Override
+    public String toString() {
+        return "%s %s".formatted(variant, toFEN());
+    }
+}
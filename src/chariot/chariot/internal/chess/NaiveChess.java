@@ -658,7 +658,13 @@ public record NaiveChess(String variant, FEN fen, Map<Square.Pos, Square<Piece>>
 
         var mutableMap = new HashMap<>(squareMap());
         mutableMap.put(fromTo.from().pos(), Square.empty(fromTo.from().pos()));
-        mutableMap.put(fromTo.to(), Square.withPiece(fromTo.to(), fromTo.from().type(), fromTo.from().side()));
+        Square<Piece> maybeCapture = mutableMap.put(fromTo.to(), Square.withPiece(fromTo.to(), fromTo.from().type(), fromTo.from().side()));
+
+        if (fromTo.from().type() == Piece.pawn && fromTo.from().file() != fromTo.to().file() && maybeCapture instanceof Square.Empty) {
+            // en passant, the captured pawn leaves the board too
+            Square.Pos epSquare = Square.pos(fromTo.to().file(), fromTo.from().rank());
+            mutableMap.put(epSquare, Square.empty(epSquare));
+        }
 
         String mutatedPositions = DefaultBoard.squaresToFenPositions(mutableMap);
 
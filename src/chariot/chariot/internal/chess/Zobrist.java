@@ -0,0 +1,27 @@
+package chariot.internal.chess;
+
+import module java.base;
+
+/// Random keys for Zobrist hashing of positions - the key of a position is the xor of the keys of its features,
+/// so a move updates the key by xor-ing out the features it removes and xor-ing in the features it adds.
+///
+/// The keys come from a fixed seed, so the key of a position is the same in every run.
+final class Zobrist {
+
+    private Zobrist() {}
+
+    static final long[][] pieces    = new long[12][64]; // by piece type * 2 + side
+    static final long[]   castling  = new long[64];     // by square of castling rook
+    static final long[]   enPassant = new long[8];      // by file
+    static final long     blackToMove;
+
+    static {
+        var random = new SplittableRandom(0x636861726961L);
+        for (long[] squares : pieces) {
+            for (int square = 0; square < 64; square++) squares[square] = random.nextLong();
+        }
+        for (int square = 0; square < 64; square++) castling[square] = random.nextLong();
+        for (int file = 0; file < 8; file++) enPassant[file] = random.nextLong();
+        blackToMove = random.nextLong();
+    }
+}
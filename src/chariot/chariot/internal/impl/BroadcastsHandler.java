@@ -36,7 +36,8 @@ public class BroadcastsHandler implements BroadcastsApiAuth {
                     one.value(),
                     pageNum -> topPastByPage(pageNum, params) instanceof Some<Endpoint.PageBroadcast> pt
                      ? pt.value()
-                     : new Endpoint.PageBroadcast(0,0,List.of(),0,0,0,0));
+                     : new Endpoint.PageBroadcast(0,0,List.of(),0,0,0,0),
+                    requestHandler.pageLookahead());
             return Many.entries(StreamSupport.stream(spliterator, false));
         } else {
             return Many.entries(Stream.of());
@@ -71,7 +72,8 @@ public class BroadcastsHandler implements BroadcastsApiAuth {
                     one.value(),
                     pageNum -> searchByPage(pageNum, searchTerm) instanceof Some<Endpoint.PageBroadcast> pt
                      ? pt.value()
-                     : new Endpoint.PageBroadcast(0,0,List.of(),0,0,0,0));
+                     : new Endpoint.PageBroadcast(0,0,List.of(),0,0,0,0),
+                    requestHandler.pageLookahead());
             return Many.entries(StreamSupport.stream(spliterator, false));
         } else {
             return Many.entries(Stream.of());
@@ -124,7 +126,8 @@ public class BroadcastsHandler implements BroadcastsApiAuth {
         if (firstPage instanceof Some<Endpoint.PageBroadcast> one) {
             var spliterator = Util.PageSpliterator.of(one.value(),
                     pageNum -> broadcastPageByUserId(userId, pageNum, params) instanceof Some<Endpoint.PageBroadcast> pt ?
-                    pt.value() : new Endpoint.PageBroadcast(0,0,List.of(),0,0,0,0));
+                    pt.value() : new Endpoint.PageBroadcast(0,0,List.of(),0,0,0,0),
+                    requestHandler.pageLookahead());
             return Many.entries(StreamSupport.stream(spliterator, false));
         } else {
             return Many.entries(Stream.of());
@@ -3,15 +3,38 @@ package chariot.internal.impl;
 import module java.base;
 import module chariot;
 
+import chariot.internal.AsyncRequestHandler;
 import chariot.internal.Config;
 import chariot.internal.InternalClient;
 import chariot.internal.RequestHandler;
+import chariot.internal.RequestParameters;
+import chariot.internal.RequestResult;
+import chariot.internal.ResultCache;
 import chariot.util.OAuth;
 
 public class ClientImpl implements Client {
 
     RequestHandler requestHandler() {
-        return client::request;
+        return client;
+    }
+
+    AsyncRequestHandler asyncRequestHandler() {
+        return new AsyncRequestHandler() {
+            @Override
+            public CompletableFuture<RequestResult> request(RequestParameters parameters) {
+                return client.requestAsync(parameters);
+            }
+
+            @Override
+            public ResultCache resultCache() {
+                return client.resultCache();
+            }
+
+            @Override
+            public Executor executor() {
+                return client.executor();
+            }
+        };
     }
 
     final InternalClient client;
@@ -38,22 +61,22 @@ public class ClientImpl implements Client {
         this.config = config;
         client = new InternalClient(config);
 
-        analysisHandler = new AnalysisHandler(client::request);
-        botHandler = new BotHandler(client::request);
-        broadcastsHandler = new BroadcastsHandler(client::request);
-        challengesHandler = new ChallengesHandler(client::request);
-        externalEngineHandler = new ExternalEngineHandler(client::request);
-        fideApiHandler = new FideApiHandler(client::request);
-        gamesHandler = new GamesHandler(client::request);
-        puzzlesHandler = new PuzzlesHandler(client::request);
-        simulsHandler = new SimulsHandler(client::request);
-        studiesHandler = new StudiesHandler(client, client::request);
-        tablebaseHandler = new TablebaseHandler(client::request);
-        teamsHandler = new TeamsHandler(client::request);
-        tournamentsHandler = new TournamentsHandler(client::request);
-        usersHandler = new UsersHandler(client::request);
+        analysisHandler = new AnalysisHandler(requestHandler());
+        botHandler = new BotHandler(requestHandler());
+        broadcastsHandler = new BroadcastsHandler(requestHandler());
+        challengesHandler = new ChallengesHandler(requestHandler());
+        externalEngineHandler = new ExternalEngineHandler(requestHandler());
+        fideApiHandler = new FideApiHandler(requestHandler());
+        gamesHandler = new GamesHandler(requestHandler());
+        puzzlesHandler = new PuzzlesHandler(requestHandler());
+        simulsHandler = new SimulsHandler(requestHandler());
+        studiesHandler = new StudiesHandler(client, requestHandler());
+        tablebaseHandler = new TablebaseHandler(requestHandler());
+        teamsHandler = new TeamsHandler(requestHandler());
+        tournamentsHandler = new TournamentsHandler(requestHandler());
+        usersHandler = new UsersHandler(requestHandler());
         oAuthHandler = new OAuthHandler(client, requestHandler());
-        customHandler = new CustomHandler(client::request);
+        customHandler = new CustomHandler(requestHandler(), asyncRequestHandler());
     }
 
     public Config config() {
@@ -111,6 +134,11 @@ public class ClientImpl implements Client {
         params.accept(builder);
     }
 
+    @Override
+    public ClientMetrics metrics() {
+        return client.metrics();
+    }
+
     @Override
     public One<ClientAuth> withPkce(Consumer<URI> uriHandler, Consumer<PkceConfig> pkce) {
         return OAuth.lichessAuthorizationCodeFlowPKCE(uriHandler, pkce, this)
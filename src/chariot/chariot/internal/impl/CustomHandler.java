@@ -1,6 +1,8 @@
 package chariot.internal.impl;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -16,9 +18,11 @@ import chariot.model.One;
 public class CustomHandler implements CustomApi {
 
     private final RequestHandler requestHandler;
+    private final AsyncRequestHandler asyncRequestHandler;
 
-    public CustomHandler(RequestHandler requestHandler) {
+    public CustomHandler(RequestHandler requestHandler, AsyncRequestHandler asyncRequestHandler) {
         this.requestHandler = requestHandler;
+        this.asyncRequestHandler = asyncRequestHandler;
     }
 
     @Override
@@ -88,6 +92,10 @@ public class CustomHandler implements CustomApi {
                     public One<T> request(Consumer<Request> request) {
                         return ep.newRequest(consumerAdapter.apply(request)).process(requestHandler);
                     }
+                    @Override
+                    public CompletableFuture<One<T>> requestAsync(Consumer<Request> request) {
+                        return ep.newRequest(consumerAdapter.apply(request)).processAsync(asyncRequestHandler);
+                    }
                 };
             }
 
@@ -99,6 +107,14 @@ public class CustomHandler implements CustomApi {
                     public Many<T> request(Consumer<Request> request) {
                         return ep.newRequest(consumerAdapter.apply(request)).process(requestHandler);
                     }
+                    @Override
+                    public CompletableFuture<Many<T>> requestAsync(Consumer<Request> request) {
+                        return ep.newRequest(consumerAdapter.apply(request)).processAsync(asyncRequestHandler);
+                    }
+                    @Override
+                    public Flow.Publisher<T> publisher(Consumer<Request> request) {
+                        return ep.newRequest(consumerAdapter.apply(request)).publisher(asyncRequestHandler);
+                    }
                 };
             }
         };
@@ -138,7 +138,8 @@ public class StudiesHandler implements StudiesApiAuth {
         if (firstPage instanceof Some<PageStudy> one) {
             var spliterator = Util.PageSpliterator.of(one.value(),
                     pageNum -> byPage(pageNum) instanceof Some<PageStudy> pt ?
-                    pt.value() : new PageStudy(0,0,List.of(),0,0,0,0));
+                    pt.value() : new PageStudy(0,0,List.of(),0,0,0,0),
+                    requestHandler.pageLookahead());
             return Many.entries(StreamSupport.stream(spliterator, false));
         } else {
             return Many.entries(Stream.of());
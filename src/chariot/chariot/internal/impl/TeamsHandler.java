@@ -109,7 +109,8 @@ public class TeamsHandler implements TeamsApiAuth {
         if (firstPage instanceof Some<PageTeam> one) {
             var spliterator = Util.PageSpliterator.of(one.value(),
                     pageNum -> searchByPage(consumer.andThen(p -> p.page(pageNum))) instanceof Some<PageTeam> pt ?
-                    pt.value() : new PageTeam(0,0,List.of(),0,0,0,0));
+                    pt.value() : new PageTeam(0,0,List.of(),0,0,0,0),
+                    requestHandler.pageLookahead());
             return Many.entries(StreamSupport.stream(spliterator, false));
         } else {
             return Many.entries(Stream.of());
@@ -122,7 +123,8 @@ public class TeamsHandler implements TeamsApiAuth {
         if (firstPage instanceof Some<PageTeam> one) {
             var spliterator = Util.PageSpliterator.of(one.value(),
                     pageNum -> popularTeamsByPage(pageNum) instanceof Some<PageTeam> pt ?
-                    pt.value() : new PageTeam(0,0,List.of(),0,0,0,0));
+                    pt.value() : new PageTeam(0,0,List.of(),0,0,0,0),
+                    requestHandler.pageLookahead());
             return Many.entries(StreamSupport.stream(spliterator, false));
         } else {
             return Many.entries(Stream.of());
@@ -46,15 +46,9 @@ public class UsersAuthHandler extends UsersBaseHandler implements UsersApiAuth {
 
         var paramsMap = MapBuilder.of(UsersParams.class).toMap(params);
 
-        Many<UserAuth> first = requestBatchUsersByIds(batches.getFirst(), UserData::toUserAuth, paramsMap);
-
-        return switch(first) {
-            case Entries(Stream<UserAuth> stream) -> Many.entries(Stream.concat(stream,
-                        batches.stream().skip(1)
-                        .map(batch -> requestBatchUsersByIds(batch, UserData::toUserAuth, paramsMap))
-                        .flatMap(Many::stream)));
-            case Fail<UserAuth> fail -> fail;
-        };
+        var options = BatchOptions.of(paramsMap);
+
+        return fetchBatches(batches, batch -> requestBatchUsersByIds(batch, UserData::toUserAuth, paramsMap), options);
     }
 
     @Override
@@ -7,6 +7,7 @@ import chariot.internal.Endpoint;
 import chariot.internal.RequestHandler;
 import chariot.internal.Util.MapBuilder;
 
+import chariot.api.UsersApi.BatchFailure;
 import chariot.api.UsersApi.CrosstableParams;
 import chariot.api.UsersApi.UserStatusParams;
 import chariot.model.Enums.PerfType;
@@ -79,21 +80,18 @@ public abstract class UsersBaseHandler implements UsersApiBase {
         List<List<String>> batches = userIds.stream()
             .gather(Gatherers.windowFixed(100)).toList();
 
-        Function<List<String>, Many<UserStatus>> fetchBatch = batch ->
-            Endpoint.userStatusByIds.newRequest(request -> request
-                    .query(MapBuilder.of(UserStatusParams.class)
-                        .add("ids", String.join(",", batch)).toMap(consumer)))
-            .process(requestHandler);
-
-        Many<UserStatus> first = fetchBatch.apply(batches.getFirst());
+        var paramMap = MapBuilder.of(UserStatusParams.class).toMap(consumer);
+        var options = BatchOptions.of(paramMap);
 
-        return switch(first) {
-            case Entries(Stream<UserStatus> stream) -> Many.entries(Stream.concat(stream,
-                        batches.stream().skip(1)
-                        .map(fetchBatch)
-                        .flatMap(Many::stream)));
-            case Fail<UserStatus> fail -> fail;
+        Function<List<String>, Many<UserStatus>> fetchBatch = batch -> {
+            var query = new LinkedHashMap<String, Object>(paramMap);
+            query.put("ids", String.join(",", batch));
+            return Endpoint.userStatusByIds.newRequest(request -> request
+                    .query(query))
+                .process(requestHandler);
         };
+
+        return fetchBatches(batches, fetchBatch, options);
     }
 
     /**
@@ -163,6 +161,120 @@ public abstract class UsersBaseHandler implements UsersApiBase {
             .process(requestHandler);
     }
 
+    // The batch options are not query parameters, so they are removed from the parameter map
+    record BatchOptions(int parallelism, Consumer<BatchFailure> onFailure) {
+        @SuppressWarnings("unchecked")
+        static BatchOptions of(Map<String, Object> paramMap) {
+            int parallelism = paramMap.remove("parallel") instanceof Integer p ? Math.max(1, p) : 1;
+            var onFailure = (Consumer<BatchFailure>) paramMap.remove("onBatchFailure");
+            return new BatchOptions(parallelism, onFailure);
+        }
+    }
+
+    <T> Many<T> fetchBatches(List<List<String>> batches, Function<List<String>, Many<T>> fetchBatch, BatchOptions options) {
+        if (batches.isEmpty()) return Many.entries(Stream.of());
+
+        var parallel = options.parallelism() == 1
+            ? null
+            : new ParallelBatches<>(batches, fetchBatch, options.parallelism(), requestHandler.executor());
+        Iterator<Many<T>> results = parallel == null
+            ? batches.stream().map(fetchBatch).iterator()
+            : parallel;
+
+        Many<T> first = results.next();
+        if (first instanceof Fail<T> fail && options.onFailure() == null) {
+            if (parallel != null) parallel.cancel();
+            return fail;
+        }
+
+        var batchIds = batches.iterator();
+        Function<Many<T>, Stream<T>> entries = many -> {
+            var ids = batchIds.next();
+            return switch(many) {
+                case Entries(var stream) -> stream;
+                case Fail(int status, String message) -> {
+                    var failure = new BatchFailure(ids, status, message);
+                    if (options.onFailure() == null) {
+                        if (parallel != null) parallel.cancel();
+                        throw new IllegalStateException("Failed to fetch batch of %d user ids, after the first batch - %s".formatted(ids.size(), failure));
+                    }
+                    options.onFailure().accept(failure);
+                    yield Stream.of();
+                }
+            };
+        };
+
+        var stream = Stream.concat(Stream.of(first),
+                    StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED), false))
+                .flatMap(entries);
+        return Many.entries(parallel == null ? stream : stream.onClose(parallel::cancel));
+    }
+
+    // Keeps up to parallelism batches in flight, fetched by the executor of the client,
+    // and returns the results in the order of the batches.
+    // The response of each batch is read fully by the task fetching it.
+    // Cancelling interrupts the batches in flight, and fetches no further batches.
+    static final class ParallelBatches<T> implements Iterator<Many<T>> {
+        private final Iterator<List<String>> remaining;
+        private final Function<List<String>, Many<T>> fetchBatch;
+        private final int parallelism;
+        private final Executor executor;
+        private final Deque<FutureTask<Many<T>>> inFlight = new ArrayDeque<>();
+        private boolean cancelled;
+
+        ParallelBatches(List<List<String>> batches, Function<List<String>, Many<T>> fetchBatch, int parallelism, Executor executor) {
+            this.remaining = batches.iterator();
+            this.fetchBatch = fetchBatch;
+            this.parallelism = parallelism;
+            this.executor = executor;
+            fill();
+        }
+
+        @Override public synchronized boolean hasNext() { return ! inFlight.isEmpty(); }
+
+        @Override
+        public Many<T> next() {
+            FutureTask<Many<T>> task;
+            synchronized (this) {
+                if (inFlight.isEmpty()) throw new NoSuchElementException();
+                task = inFlight.removeFirst();
+            }
+            Many<T> result;
+            try {
+                result = task.get();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                cancel();
+                result = Many.fail(-1, "Interrupted");
+            } catch (CancellationException ce) {
+                result = Many.fail(-1, "Cancelled");
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof Error error) throw error;
+                result = Many.fail(-1, String.valueOf(ee.getCause().getMessage()));
+            }
+            fill();
+            return result;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            inFlight.forEach(task -> task.cancel(true));
+            inFlight.clear();
+        }
+
+        private synchronized void fill() {
+            while (! cancelled && inFlight.size() < parallelism && remaining.hasNext()) {
+                var batch = remaining.next();
+                var task = new FutureTask<Many<T>>(() -> switch(fetchBatch.apply(batch)) {
+                    case Entries(var stream) -> Many.entries(stream.toList().stream());
+                    case Fail<T> fail -> fail;
+                });
+                inFlight.addLast(task);
+                executor.execute(task);
+            }
+        }
+    }
+
     <T> Many<T> requestBatchUsersByIds(List<String> ids, Function<UserData, T> mapper, Map<String,Object> paramMap) {
         Many<UserData> result = Endpoint.usersByIds.newRequest(request -> request
                 .query(paramMap)
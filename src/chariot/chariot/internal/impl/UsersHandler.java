@@ -41,14 +41,8 @@ public class UsersHandler extends UsersBaseHandler implements UsersApi {
 
         var paramMap = MapBuilder.of(UsersParams.class).toMap(params);
 
-        Many<User> first = requestBatchUsersByIds(batches.getFirst(), UserData::toUser, paramMap);
-
-        return switch(first) {
-            case Entries(Stream<User> stream) -> Many.entries(Stream.concat(stream,
-                        batches.stream().skip(1)
-                        .map(batch -> requestBatchUsersByIds(batch, UserData::toUser, paramMap))
-                        .flatMap(Many::stream)));
-            case Fail<User> fail -> fail;
-        };
+        var options = BatchOptions.of(paramMap);
+
+        return fetchBatches(batches, batch -> requestBatchUsersByIds(batch, UserData::toUser, paramMap), options);
     }
 }
@@ -0,0 +1,38 @@
+package chariot.internal.yayson;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
+
+// A list which is decoded from its JSON source on first access.
+// All elements are decoded at once, after which the decoder, and with it the source, is released.
+// If decoding fails, the error is thrown to the caller and the source is kept, so each access fails the same way.
+final class LazyList<E> extends AbstractList<E> implements RandomAccess {
+
+    private Supplier<List<E>> decoder;
+    private volatile List<E> list;
+
+    LazyList(Supplier<List<E>> decoder) {
+        this.decoder = decoder;
+    }
+
+    private List<E> list() {
+        var decoded = list;
+        if (decoded == null) {
+            synchronized (this) {
+                decoded = list;
+                if (decoded == null) {
+                    decoded = Objects.requireNonNullElse(decoder.get(), List.of());
+                    list = decoded;
+                    decoder = null;
+                }
+            }
+        }
+        return decoded;
+    }
+
+    @Override public E get(int index) { return list().get(index); }
+    @Override public int size()       { return list().size(); }
+}
@@ -1,5 +1,6 @@
 package chariot.internal.yayson;
 
+import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -8,14 +9,51 @@ import java.util.stream.Collectors;
 import chariot.internal.yayson.Token.*;
 
 public class Lexer {
-    public static List<Token> tokenize(String json) {
-        Objects.requireNonNull(json);
-        json = json.trim();
+
+    // Size of the cache of a lexer without a given cache, which shares the repeated keys of a single JSON document
+    private static final int ownCacheSize = 64;
+
+    private final CharSequence json;
+    private final int end;
+    private final StringCache strings;
+    private int pos;
+
+    public Lexer(CharSequence json) {
+        this(json, 0, Objects.requireNonNull(json).length());
+    }
+
+    public Lexer(char[] json) {
+        this(CharBuffer.wrap(Objects.requireNonNull(json)));
+    }
+
+    public Lexer(CharSequence json, int start, int end) {
+        this(json, start, end, new StringCache(ownCacheSize));
+    }
+
+    public Lexer(CharSequence json, StringCache strings) {
+        this(json, 0, Objects.requireNonNull(json).length(), strings);
+    }
+
+    Lexer(CharSequence json, int start, int end, StringCache strings) {
+        this.json = Objects.requireNonNull(json);
+        this.strings = Objects.requireNonNull(strings);
+        Objects.checkFromToIndex(start, end, json.length());
+        this.pos = start;
+        this.end = end;
+    }
+
+    public static List<Token> tokenize(CharSequence json) {
+        return tokenize(new Lexer(json));
+    }
+
+    public static List<Token> tokenize(CharSequence json, StringCache strings) {
+        return tokenize(new Lexer(json, strings));
+    }
+
+    private static List<Token> tokenize(Lexer lexer) {
         var tokens = new ArrayList<Token>();
-        while (json.length() > 0) {
-            var tt = Token.lex(json);
-            tt.token().ifPresent(t -> tokens.add(t));
-            json = tt.tail();
+        for (var token = lexer.next(); token != null; token = lexer.next()) {
+            tokens.add(token);
         }
         return tokens;
     }
@@ -30,4 +68,183 @@ public class Lexer {
             })
         .collect(Collectors.joining());
     }
+
+    public int position() {
+        return pos;
+    }
+
+    public CharSequence source() {
+        return json;
+    }
+
+    // Skips to after the bracket which closes the object or array
+    // whose opening bracket was just returned by next(), without creating any tokens
+    public int skipContainer() {
+        int depth = 1;
+        while (pos < end) {
+            switch (json.charAt(pos++)) {
+                case '{', '[' -> depth++;
+                case '}', ']' -> { if (--depth == 0) return pos; }
+                case '"' -> {
+                    while (pos < end) {
+                        char c = json.charAt(pos++);
+                        if (c == '"') break;
+                        if (c == '\\') pos++;
+                    }
+                }
+                default -> {}
+            }
+        }
+        pos = end;
+        return pos;
+    }
+
+    public boolean hasNext() {
+        skipWhitespace();
+        return pos < end;
+    }
+
+    // Returns null when there are no more tokens, skipping unrecognized characters
+    public Token next() {
+        while (hasNext()) {
+            int start = pos;
+            Token token = switch(json.charAt(pos)) {
+                case '{' -> structural(Structural.BEGIN_OBJECT);
+                case '}' -> structural(Structural.END_OBJECT);
+                case '[' -> structural(Structural.BEGIN_ARRAY);
+                case ']' -> structural(Structural.END_ARRAY);
+                case ':' -> structural(Structural.NAME_SEPARATOR);
+                case ',' -> structural(Structural.VALUE_SEPARATOR);
+                case '"' -> lexString();
+                case 't' -> lexLiteral(Literal.TRUE);
+                case 'f' -> lexLiteral(Literal.FALSE);
+                case 'n' -> lexLiteral(Literal.NULL);
+                case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> lexNumber();
+                default -> null;
+            };
+            if (token != null) return token;
+            pos = start + 1;
+        }
+        return null;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && json.charAt(pos) <= ' ') pos++;
+    }
+
+    private Token structural(Structural structural) {
+        pos++;
+        return structural;
+    }
+
+    private Token lexLiteral(Literal literal) {
+        String str = literal.literal();
+        int length = str.length();
+        if (end - pos < length) return null;
+        for (int i = 1; i < length; i++) {
+            if (json.charAt(pos + i) != str.charAt(i)) return null;
+        }
+        pos += length;
+        return literal;
+    }
+
+    private Token lexString() {
+        int start = pos + 1;
+        int i = start;
+        int hash = 0;
+        // Fast path, no escapes - the decoded string and the source are the same,
+        // and short strings (keys and enum-like values) are shared from the cache
+        while (i < end) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                String string = strings.get(json, start, i, hash);
+                pos = i + 1;
+                return new JsonString(string, string);
+            }
+            if (c == '\\') break;
+            hash = 31 * hash + c;
+            i++;
+        }
+
+        StringBuilder sb = new StringBuilder(i - start + 16).append(json, start, i);
+        for (; i < end; i++) {
+            char c = json.charAt(i);
+            switch (c) {
+                case '"' -> {
+                    pos = i + 1;
+                    return new JsonString(sb.toString(), json.subSequence(start, i).toString());
+                }
+                case '\\' -> {
+                    i++;
+                    if (i >= end) break;
+                    switch(json.charAt(i)) {
+                        case 'b' -> sb.append('\b');
+                        case 't' -> sb.append('\t');
+                        case 'n' -> sb.append('\t');
+                        case 'f' -> sb.append('\f');
+                        case 'r' -> sb.append('\r');
+                        case 'u' -> {
+                            if (i + 4 >= end) { i = end; break; }
+                            sb.append((char) hex4(i + 1));
+                            i += 4;
+                        }
+                        case '"',
+                             '\'',
+                             '\\',
+                             '/' -> sb.append(json.charAt(i));
+                        default -> System.err.println("Illegal escape in " + json.subSequence(start - 1, Math.min(end, i + 1)));
+                    }
+                }
+                default -> sb.append(c);
+            }
+        }
+        System.err.println("Couldn't find matching [\"], for json [" + json.subSequence(start - 1, end) + "]");
+        return null;
+    }
+
+    private int hex4(int from) {
+        int value = 0;
+        for (int i = from; i < from + 4; i++) {
+            int digit = Character.digit(json.charAt(i), 16);
+            if (digit < 0) throw new NumberFormatException("Invalid unicode escape " + json.subSequence(from, from + 4));
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private Token lexNumber() {
+        int start = pos;
+        int i = start;
+        boolean integral = true;
+        while (i < end) {
+            char c = json.charAt(i);
+            if (c >= '0' && c <= '9' || c == '-' || c == '+') {
+                i++;
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                i++;
+            } else {
+                break;
+            }
+        }
+
+        try {
+            var string = json.subSequence(start, i).toString();
+            Number number;
+            if (integral) {
+                long n = Long.parseLong(string);
+                number = n >= Integer.MIN_VALUE && n <= Integer.MAX_VALUE
+                    ? (Number) Integer.valueOf((int) n)
+                    : (Number) Long.valueOf(n);
+            } else {
+                number = Float.valueOf(string);
+            }
+            pos = i;
+            return new JsonNumber(string, number);
+        } catch (NumberFormatException e) {
+            // todo error.log
+            e.printStackTrace(System.err);
+        }
+        return null;
+    }
 }
@@ -74,15 +74,43 @@ public class Parser {
     public record YayNull()               implements YayValue {}
 
 
-    static YayNode parse(List<Token> tokens) {
-        if (tokens.isEmpty()) {
-            return null;
+    private final Lexer lexer;
+
+    Parser(Lexer lexer) {
+        this.lexer = lexer;
+    }
+
+    public static YayNode fromString(String json) {
+        Objects.requireNonNull(json);
+        return parse(new Lexer(json));
+    }
+
+    static YayNode parse(Lexer lexer) {
+        var parser = new Parser(lexer);
+        return parser.parse(lexer.next());
+    }
+
+    Token next() {
+        return lexer.next();
+    }
+
+    Lexer lexer() {
+        return lexer;
+    }
+
+    // Consumes the value starting with token, without building any nodes
+    void skip(Token token) {
+        if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+            lexer.skipContainer();
         }
-        var token = tokens.remove(0);
+    }
+
+    YayNode parse(Token token) {
         return switch(token) {
+            case null -> null;
             case Structural structural -> switch(structural) {
-                case BEGIN_ARRAY  -> parseArray(tokens);
-                case BEGIN_OBJECT -> parseObject(tokens);
+                case BEGIN_ARRAY  -> parseArray();
+                case BEGIN_OBJECT -> parseObject();
                 default -> null;
             };
             case Literal literal -> switch(literal) {
@@ -95,70 +123,61 @@ public class Parser {
         };
     }
 
-    static YayArray parseArray(List<Token> tokens) {
+    YayArray parseArray() {
         var yayArray = new YayArray(new ArrayList<>());
 
-        if (tokens.get(0) instanceof Structural s && s == Structural.END_ARRAY) {
-            tokens.remove(0);
+        var token = lexer.next();
+        if (token instanceof Structural s && s == Structural.END_ARRAY) {
             return yayArray;
         }
 
         while (true) {
-            var node = parse(tokens);
+            var node = parse(token);
             yayArray.value().add(node);
-            var t = tokens.remove(0);
+            var t = lexer.next();
             if (t instanceof Structural s && s == Structural.END_ARRAY) {
                 return yayArray;
             } else if (! (t instanceof Structural s && s == Structural.VALUE_SEPARATOR)) {
                 throw new YayException("Expected comma in array");
             }
+            token = lexer.next();
         }
     }
 
-    static YayObject parseObject(List<Token> tokens) {
+    YayObject parseObject() {
         var yayObject = new YayObject(new LinkedHashMap<String, YayNode>());
-        if (tokens.get(0) instanceof Structural eo && eo == Structural.END_OBJECT) {
-            tokens.remove(0);
+        var key = lexer.next();
+        if (key instanceof Structural eo && eo == Structural.END_OBJECT) {
             return yayObject;
         }
         while (true) {
-            var key = tokens.remove(0);
             if (! (key instanceof JsonString js)) {
-                System.out.println("tokens: " + tokens);
-                throw new YayException("Expected the key, in the JSON key-value pair, to be a string - was [%s]".formatted(key));
+                throw new YayException("Expected the key, in the JSON key-value pair, to be a string - was [%s] at position %d".formatted(key, lexer.position()));
             }
-            var sep = tokens.remove(0);
+            var sep = lexer.next();
             if (! (sep instanceof Structural ns && ns == Structural.NAME_SEPARATOR)) {
                 throw new YayException("Expected the colon between key-value pair - at key [%s]".formatted(key));
             }
-            var node = parse(tokens);
+            var node = parse(lexer.next());
 
             var prev = yayObject.value().put(js.string(), node);
             if (prev != null) {
                 // warn, json "should not" have multiple keys with same name...
                 System.out.println("Whaaat - prev!=null with prev " + prev);
             }
-            if (tokens.isEmpty()) {
+
+            var t = lexer.next();
+            if (t == null) {
                 System.out.println("\n\n\nFinished with [" + key + "] and now all tokens are gone...!?\n\n\n");
                 return yayObject;
             }
 
-            var t = tokens.remove(0);
             if (t instanceof Structural eo && eo == Structural.END_OBJECT) {
                 return yayObject;
             } else if (! (t instanceof Structural vs && vs == Structural.VALUE_SEPARATOR)) {
                 throw new YayException("Expected comma after pair in object - at key [%s] - the token:%n%s%n".formatted(key, t));
             }
+            key = lexer.next();
         }
     }
-
-    public static YayNode fromString(String json) {
-        Objects.requireNonNull(json);
-        json = json.trim();
-        var tokens = Lexer.tokenize(json);
-        var node = parse(tokens);
-        //node = new YayNode.YayWithRaw(node, json);
-        return node;
-    }
-
 }
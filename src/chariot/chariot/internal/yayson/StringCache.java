@@ -0,0 +1,70 @@
+package chariot.internal.yayson;
+
+// Bounded cache of short strings, to share the String instances of
+// repeated JSON keys ("id", "rated", "variant", ...) and low-cardinality values ("blitz", "white", ...).
+//
+// Each YayMapper has a cache of its own, shared by all the JSON it parses,
+// and a Lexer created without a cache has a small cache for only its own JSON.
+// The global cache, shared(), is opt-in, with YayMapper.Config.sharedStrings.
+//
+// Direct-mapped by hash, a colliding string replaces the previous one.
+// Entries are written without synchronization, which is safe as String is immutable -
+// a racing reader will at worst miss and create its own instance.
+public final class StringCache {
+
+    static final int MAX_LENGTH = 32;
+
+    private static final StringCache shared = new StringCache(4096);
+
+    private final String[] entries;
+    private final int mask;
+
+    public StringCache(int size) {
+        if (Integer.bitCount(size) != 1) throw new IllegalArgumentException("Size (" + size + ") must be a power of two");
+        entries = new String[size];
+        mask = size - 1;
+    }
+
+    public static StringCache shared() {
+        return shared;
+    }
+
+    // Returns the cached instance of the characters between start and end,
+    // where hash is the String.hashCode() of those characters
+    String get(CharSequence source, int start, int end, int hash) {
+        int length = end - start;
+        if (length > MAX_LENGTH) {
+            return source.subSequence(start, end).toString();
+        }
+        int slot = spread(hash) & mask;
+        String cached = entries[slot];
+        if (cached != null && matches(cached, source, start, length)) {
+            return cached;
+        }
+        String string = source.subSequence(start, end).toString();
+        entries[slot] = string;
+        return string;
+    }
+
+    // Returns the cached instance equal to string, caching it if there is none
+    String canonical(String string) {
+        if (string.length() > MAX_LENGTH) return string;
+        int slot = spread(string.hashCode()) & mask;
+        String cached = entries[slot];
+        if (string.equals(cached)) return cached;
+        entries[slot] = string;
+        return string;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String cached, CharSequence source, int start, int length) {
+        if (cached.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != source.charAt(start + i)) return false;
+        }
+        return true;
+    }
+}
@@ -4,8 +4,11 @@ import java.lang.invoke.*;
 import java.lang.reflect.*;
 import java.net.URI;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -16,9 +19,46 @@ import chariot.model.Opt;
 public class YayMapper {
 
     private final Config config;
+    private final StringCache strings;
+    private volatile ClassValue<RecordPlan> recordPlans = newRecordPlans();
+    private volatile ClassValue<SealedPlan> sealedPlans = newSealedPlans();
 
     public static YayMapper mapper() {
-        return mapper(new Config(false, new HashMap<>(), new HashMap<>()));
+        return mapper(new Config(false, false, new HashMap<>(), new HashMap<>(), false));
+    }
+
+    // List components of records are kept as their JSON source,
+    // and are decoded when first accessed.
+    // Until then each such list holds on to the source it was read from, such as the whole line of a stream,
+    // and once decoded it lets go of the source.
+    // Errors in decoding the elements are thrown by the first access of the list, not by the mapping of the record,
+    // and by each later access.
+    // Only lists are deferred - nested records, such as clocks and players, are decoded with their enclosing record.
+    public static YayMapper lazyMapper() {
+        return mapper(new Config(false, true, new HashMap<>(), new HashMap<>(), false));
+    }
+
+    private static final ScopedValue<Boolean> lazyLists = ScopedValue.newInstance();
+
+    // The elements of the stream, where each element is passed on to the later stages of the stream,
+    // such as mapping lines to models, with list components decoded as by lazyMapper() - also by a mapper which isn't lazy.
+    // Lets a client choose lazy decoding for its own responses, while the mappers are shared by all clients.
+    public static <T> Stream<T> lazyLists(Stream<T> stream) {
+        var source = stream.spliterator();
+        var scoped = new Spliterator<T>() {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                return ScopedValue.where(lazyLists, true).call(() -> source.tryAdvance(action));
+            }
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+                ScopedValue.where(lazyLists, true).run(() -> source.forEachRemaining(action));
+            }
+            @Override public Spliterator<T> trySplit()   { return null; }
+            @Override public long estimateSize()          { return source.estimateSize(); }
+            @Override public int characteristics()        { return source.characteristics() & ~(SUBSIZED | SIZED); }
+        };
+        return StreamSupport.stream(scoped, false).onClose(stream::close);
     }
 
     public static YayMapper mapper(Config config) {
@@ -27,21 +67,145 @@ public class YayMapper {
 
     private YayMapper(Config config) {
         this.config = config;
+        this.strings = config.sharedStrings() ? StringCache.shared() : new StringCache(1024);
     }
 
-    public record Config(boolean raw, Map<Class<?>, Map<String, String>> fieldMappings, Map<Class<?>, Function<YayNode, ?>> customMappings) {}
+    // With sharedStrings, the mapper shares the strings of the JSON it parses through the global StringCache,
+    // instead of through a cache of its own
+    public record Config(boolean raw, boolean lazy, Map<Class<?>, Map<String, String>> fieldMappings, Map<Class<?>, Function<YayNode, ?>> customMappings, boolean sharedStrings) {}
 
     public void setMappings(Class<?> cls, Map<String, String> mappings) {
         config.fieldMappings().put(cls, mappings);
+        recordPlans = newRecordPlans();
+        sealedPlans = newSealedPlans();
     }
 
     public void setCustomMapper(Class<?> cls, Function<YayNode, ?> f) {
         config.customMappings().put(cls, f);
+        recordPlans = newRecordPlans();
+        sealedPlans = newSealedPlans();
+    }
+
+    // Reflection results needed to map a record class, resolved once per class.
+    // Plans are discarded when field mappings or custom mappers change.
+    record RecordPlan(Class<?> cls, ComponentPlan[] components, Map<String, Integer> componentIndex, MethodHandle constructor) {}
+    record ComponentPlan(String jsonName, Class<?> type, ParameterizedType parameterizedType, Function<YayNode, Object> converter, Binding binding, Class<?> recordType) {}
+
+    // How a component can be bound directly from tokens,
+    // TREE meaning that a YayNode is parsed and given to the converter
+    enum Binding { TREE, RECORD, OPT_RECORD, OPTIONAL_RECORD, LIST_RECORD }
+
+    private ClassValue<RecordPlan> newRecordPlans() {
+        return new ClassValue<>() {
+            @Override
+            protected RecordPlan computeValue(Class<?> cls) {
+                return cls.isRecord() ? recordPlan(cls) : null;
+            }
+        };
+    }
+
+    private ClassValue<SealedPlan> newSealedPlans() {
+        return new ClassValue<>() {
+            @Override
+            protected SealedPlan computeValue(Class<?> cls) {
+                return sealedPlan(cls);
+            }
+        };
+    }
+
+    private RecordPlan recordPlan(Class<?> cls) {
+        var recordComponents = cls.getRecordComponents();
+        var fieldMappings = config.fieldMappings().getOrDefault(cls, Map.of());
+
+        var components = new ComponentPlan[recordComponents.length];
+        var componentIndex = new HashMap<String, Integer>();
+        var types = new Class<?>[recordComponents.length];
+        for (int i = 0; i < recordComponents.length; i++) {
+            var rc = recordComponents[i];
+            // See if we need to swap the json property name to a java friendly name
+            // json: { "int": 5 }
+            // java: int int = 5; <- not ok
+            // java: int intVariable = 5; <- "ok"
+            // So json "int" -> java "intVariable" mapping
+            var jsonName = strings.canonical(fieldMappings.getOrDefault(rc.getName(), rc.getName()));
+            var parameterizedType = rc.getGenericType() instanceof ParameterizedType pt
+                ? pt : null;
+            types[i] = rc.getType();
+            var binding = binding(rc.getType(), parameterizedType);
+            var recordType = binding == Binding.RECORD ? rc.getType() : typeClass(parameterizedType);
+            components[i] = new ComponentPlan(jsonName, rc.getType(), parameterizedType, converter(rc.getType(), parameterizedType), binding, recordType);
+            componentIndex.put(jsonName, i);
+        }
+
+        MethodHandle constructor;
+        try {
+            YayMapper.class.getModule().addReads(cls.getModule());
+            constructor = MethodHandles.lookup().unreflectConstructor(cls.getDeclaredConstructor(types));
+            constructor = constructor
+                .asType(constructor.type().changeReturnType(Object.class))
+                .asSpreader(Object[].class, types.length);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Couldn't find canonical constructor of " + cls.getName(), e);
+        }
+        return new RecordPlan(cls, components, Map.copyOf(componentIndex), constructor);
+    }
+
+    private Binding binding(Class<?> type, ParameterizedType parameterizedType) {
+        if (config.customMappings().containsKey(type)) return Binding.TREE;
+        if (type.isRecord()) return Binding.RECORD;
+
+        if (! (typeClass(parameterizedType) instanceof Class<?> typeClass
+               && typeClass.isRecord()
+               && ! config.customMappings().containsKey(typeClass))) {
+            return Binding.TREE;
+        }
+        if (type == Opt.class) return Binding.OPT_RECORD;
+        if (type == Optional.class) return Binding.OPTIONAL_RECORD;
+        if (List.class.isAssignableFrom(type)) return Binding.LIST_RECORD;
+        return Binding.TREE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Function<YayNode, Object> converter(Class<?> type, ParameterizedType parameterizedType) {
+        if (config.customMappings().get(type) instanceof Function<YayNode, ?> custom) {
+            return (Function<YayNode, Object>) custom;
+        }
+        if (type.isInterface() && type.isSealed()) {
+            return node -> buildFromSealedInterface(node, type, parameterizedType);
+        }
+        // Fast paths for the common leaf types,
+        // anything unexpected is handled by the general buildFromClass
+        if (type == String.class) {
+            return node -> node instanceof YayString(var string)
+                ? string
+                : buildFromClass(node, type, parameterizedType);
+        }
+        if (type == int.class || type == Integer.class) {
+            return node -> node instanceof YayNumber(Integer integer)
+                ? integer
+                : buildFromClass(node, type, parameterizedType);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return node -> node instanceof YayBool(var bool)
+                ? bool
+                : buildFromClass(node, type, parameterizedType);
+        }
+        return node -> buildFromClass(node, type, parameterizedType);
     }
 
     public <T> T fromString(String json, Class<T> cls) {
         try {
-            var node = Parser.fromString(json);
+            if (cls.isRecord() && ! config.customMappings().containsKey(cls)) {
+                // Bind directly from the tokens, without building a YayNode tree
+                var parser = new Parser(new Lexer(json, strings));
+                var token = parser.next();
+                if (token != Token.BEGIN_OBJECT) {
+                    return null;
+                }
+                return cls.cast(bindRecord(parser, cls));
+            }
+
+            var node = Parser.parse(new Lexer(json, strings));
 
             if (config.customMappings().containsKey(cls)) {
                 return cls.cast(config.customMappings().get(cls).apply(node));
@@ -92,85 +256,174 @@ public class YayMapper {
         if (cls.isInterface() && cls.isSealed()) {
             return buildFromSealedInterface(node, cls, null);
         } else if (cls.isRecord() && node instanceof YayObject yo) {
-            List<RecordComponent> recordComponents = Arrays.asList(cls.getRecordComponents());
+            var plan = recordPlans.get(cls);
 
-            List<?> recordComponentValues = mapValuesForComponents(recordComponents, cls, yo);
+            Object[] recordComponentValues = mapValuesForComponents(plan, yo);
 
-            T recordInstance;
-            try {
-                // Create the instance!
-                recordInstance = cls.cast(findConstructor(cls, recordComponents).newInstance(recordComponentValues.toArray()));
-            } catch (InstantiationException |
-                    IllegalAccessException |
-                    IllegalArgumentException |
-                    InvocationTargetException e) {
-                e.printStackTrace(System.err);
-                System.err.println(" ########  Instances: " + recordComponentValues);
-                System.err.println(" ========  node     : " + node);
-                recordInstance = null;
-            }
-            return recordInstance;
+            return cls.cast(construct(plan, recordComponentValues, node));
         }
         return null;
     }
 
-    private Constructor<?> findConstructor(Class<?> cls, List<RecordComponent> recordComponents) {
-        var declaredCtors = cls.getDeclaredConstructors();
-        var ctor = declaredCtors[0];
-        if (declaredCtors.length > 1) {
-            var types = recordComponents.stream()
-                .map(RecordComponent::getType)
-                .toList();
-            ctor = Arrays.stream(declaredCtors)
-                .filter(c -> Arrays.asList(c.getParameterTypes()).equals(types))
-                .findAny()
-                .orElseThrow();
+    private Object[] mapValuesForComponents(RecordPlan plan, YayObject yo) {
+        var components = plan.components();
+        var values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            var component = components[i];
+
+            // Could for instance be the field "opening" in Game, of type Game$Opening,
+            // which could be missing,
+            // or it could for instance be a field "count" of type "int" -> so would map to 0 if missing...
+            YayNode yayNodeForField = yo.value().get(component.jsonName());
+
+            try {
+                values[i] = component.converter().apply(yayNodeForField);
+            } catch (Exception e) {
+                System.err.println("Failure while looking for " + component.jsonName() + " of type " +
+                        component.type() + " with (possibly) parameterized type " + component.parameterizedType());
+                System.err.println("""
+                        Failed: T fromYayTree(YayNode node, Class<T> cls)
+                        e.getMessage(): %s
+                        cls.getName(): %s
+                        yo:
+                        =======================
+                        %s
+                        =======================
+                        """.formatted(e.getMessage(), plan.cls().getName(), yo));
+                e.printStackTrace(System.err);
+            }
         }
-        return ctor;
+        return values;
     }
 
-    private List<Object> mapValuesForComponents(List<RecordComponent> recordComponents, Class<?> cls, YayObject yo) {
-        return recordComponents.stream()
-            .map(rc -> {
-                // See if we need to swap the json property name to a java friendly name
-                // json: { "int": 5 }
-                // java: int int = 5; <- not ok
-                // java: int intVariable = 5; <- "ok"
-                // So json "int" -> java "intVariable" mapping
-                var jsonName = config.fieldMappings().getOrDefault(cls, Map.of())
-                    .getOrDefault(rc.getName(), rc.getName());
 
+    // Called after the BEGIN_OBJECT token has been consumed
+    private Object bindRecord(Parser parser, Class<?> cls) {
+        var plan = recordPlans.get(cls);
+        var components = plan.components();
+        var values = new Object[components.length];
+        var bound = new boolean[components.length];
 
-                // Could for instance be the field "opening" in Game, of type Game$Opening,
-                // which could be missing,
-                // or it could for instance be a field "count" of type "int" -> so would map to 0 if missing...
-                YayNode yayNodeForField = yo.value().get(jsonName);
+        var token = parser.next();
+        if (token != Token.END_OBJECT) {
+            while (true) {
+                if (! (token instanceof Token.JsonString(var key, _))) {
+                    throw new YayException("Expected the key, in the JSON key-value pair, to be a string - was [%s]".formatted(token));
+                }
+                if (parser.next() != Token.NAME_SEPARATOR) {
+                    throw new YayException("Expected the colon between key-value pair - at key [%s]".formatted(key));
+                }
 
-                var parameterizedType = rc.getGenericType() instanceof ParameterizedType pt
-                    ? pt : null;
+                var valueToken = parser.next();
+                if (plan.componentIndex().get(key) instanceof Integer i) {
+                    values[i] = bindComponent(parser, plan, components[i], valueToken);
+                    bound[i] = true;
+                } else {
+                    parser.skip(valueToken);
+                }
 
-                try {
-                    return rc.getType().isInterface() && rc.getType().isSealed()
-                        ? buildFromSealedInterface(yayNodeForField, rc.getType(), parameterizedType)
-                        : buildFromClass(yayNodeForField, rc.getType(), parameterizedType);
-                } catch (Exception e) {
-                    System.err.println("Failure while looking for " + jsonName + " of type " +
-                            rc.getType() + " with (possibly) parameterized type " + parameterizedType);
-                    System.err.println("""
-                            Failed: T fromYayTree(YayNode node, Class<T> cls)
-                            e.getMessage(): %s
-                            cls.getName(): %s
-                            yo:
-                            =======================
-                            %s
-                            =======================
-                            """.formatted(e.getMessage(), cls.getName(), yo));
-                    e.printStackTrace(System.err);
+                token = parser.next();
+                if (token == Token.END_OBJECT || token == null) {
+                    break;
+                } else if (token != Token.VALUE_SEPARATOR) {
+                    throw new YayException("Expected comma after pair in object - at key [%s] - the token:%n%s%n".formatted(key, token));
                 }
-                return null;
-            }).toList();
+                token = parser.next();
+            }
+        }
+
+        for (int i = 0; i < components.length; i++) {
+            if (! bound[i]) values[i] = convertComponent(plan, components[i], null);
+        }
+
+        return construct(plan, values, null);
+    }
+
+    // Creates the instance, or describes the failure and returns null
+    // when the constructor throws an exception - such as a record rejecting its values.
+    // Errors, such as OutOfMemoryError, are not caught.
+    private static Object construct(RecordPlan plan, Object[] values, YayNode node) {
+        try {
+            return (Object) plan.constructor().invokeExact(values);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            e.printStackTrace(System.err);
+            System.err.println(" ########  Instances: " + Arrays.asList(values));
+            System.err.println(" ========  class    : " + plan.cls().getName());
+            if (node != null) System.err.println(" ========  node     : " + node);
+            return null;
+        }
     }
 
+    private Object bindComponent(Parser parser, RecordPlan plan, ComponentPlan component, Token token) {
+        if (token == Token.BEGIN_ARRAY && (config.lazy() || lazyLists.isBound()) && List.class.isAssignableFrom(component.type())) {
+            var lexer = parser.lexer();
+            var source = lexer.source();
+            int start = lexer.position() - 1;
+            int end = lexer.skipContainer();
+            return new LazyList<>(() -> {
+                var spanParser = new Parser(new Lexer(source, start, end, strings));
+                return (List<?>) bindComponentEagerly(spanParser, plan, component, spanParser.next());
+            });
+        }
+        return bindComponentEagerly(parser, plan, component, token);
+    }
+
+    private Object bindComponentEagerly(Parser parser, RecordPlan plan, ComponentPlan component, Token token) {
+        if (token == Token.BEGIN_OBJECT) {
+            switch(component.binding()) {
+                case RECORD          -> { return bindRecord(parser, component.recordType()); }
+                case OPT_RECORD      -> { return Opt.of(bindRecord(parser, component.recordType())); }
+                case OPTIONAL_RECORD -> { return Optional.ofNullable(bindRecord(parser, component.recordType())); }
+                default -> {}
+            }
+        } else if (token == Token.BEGIN_ARRAY && component.binding() == Binding.LIST_RECORD) {
+            return bindRecordList(parser, component.recordType());
+        }
+        return convertComponent(plan, component, parser.parse(token));
+    }
+
+    // Called after the BEGIN_ARRAY token has been consumed
+    private List<Object> bindRecordList(Parser parser, Class<?> cls) {
+        var list = new ArrayList<Object>();
+        var token = parser.next();
+        if (token == Token.END_ARRAY) {
+            return List.of();
+        }
+        while (true) {
+            list.add(token == Token.BEGIN_OBJECT
+                    ? bindRecord(parser, cls)
+                    : buildFromClass(parser.parse(token), cls, null));
+            token = parser.next();
+            if (token == Token.END_ARRAY) {
+                return Collections.unmodifiableList(list);
+            } else if (token != Token.VALUE_SEPARATOR) {
+                throw new YayException("Expected comma in array");
+            }
+            token = parser.next();
+        }
+    }
+
+    private Object convertComponent(RecordPlan plan, ComponentPlan component, YayNode node) {
+        try {
+            return component.converter().apply(node);
+        } catch (Exception e) {
+            System.err.println("Failure while looking for " + component.jsonName() + " of type " +
+                    component.type() + " with (possibly) parameterized type " + component.parameterizedType());
+            System.err.println("""
+                    Failed: T fromYayTree(YayNode node, Class<T> cls)
+                    e.getMessage(): %s
+                    cls.getName(): %s
+                    node:
+                    =======================
+                    %s
+                    =======================
+                    """.formatted(e.getMessage(), plan.cls().getName(), node));
+            e.printStackTrace(System.err);
+        }
+        return null;
+    }
 
     private <T> T buildFromSealedInterface(YayNode node, Class<T> cls, ParameterizedType parameterizedType) {
 
@@ -195,55 +448,115 @@ public class YayMapper {
             return null;
         }
 
-        List<Class<?>> permittedRecordSubclasses = permittedRecordClassesOfSealedInterfaceHierarchy(cls);
-
-        record ClassFieldMatches(Class<?> cls, int hit, int miss) {}
-        var mostHit = Comparator.comparingInt(ClassFieldMatches::hit).reversed();
-        var leastMiss = Comparator.comparingInt(ClassFieldMatches::miss);
-
-        List<ClassFieldMatches> bestMatchList = permittedRecordSubclasses.stream()
-            .map(rec -> {
-                List<String> fieldsInRecord = Arrays.stream(rec.getRecordComponents())
-                        .map(rc -> rc.getName())
-                        .map(name -> config.fieldMappings().getOrDefault(rec, Map.of()).getOrDefault(name, name))
-                        .toList();
-                Map<Boolean, Long> hitMiss = fieldsInRecord.stream()
-                    .collect(Collectors.groupingBy(jsonFieldNames::contains, Collectors.counting()));
-                return new ClassFieldMatches(rec,
-                        hitMiss.getOrDefault(true, 0l).intValue(),
-                        hitMiss.getOrDefault(false, 0l).intValue());
-            })
-        .sorted(mostHit.thenComparing(leastMiss))
-        .toList();
-
-        if (bestMatchList.isEmpty()) {
+        var plan = sealedPlans.get(cls);
+        var candidates = plan.candidates();
+        if (candidates.isEmpty()) {
             return null;
         }
 
-        var first = bestMatchList.get(0);
-        List<Class<?>> bestClasses = new ArrayList<>();
-        bestClasses.addAll(bestMatchList.stream()
-                .filter(cfm -> cfm.hit() == first.hit() && cfm.miss() == first.miss())
-                .map(ClassFieldMatches::cls)
-                .toList());
-
-        record ClassValue(Class<?> cls, List<Method> getters, Object value) {}
-        Comparator<ClassValue> withNullValuesLast = Comparator.comparing(cv -> cv.value() == null);
-        Comparator<ClassValue> numberOfNonNullComponents = Comparator.comparing(cv -> cv.value() == null ? 0 : cv.getters().stream()
-                        .filter(getter -> { try { return getter.invoke(cv.value()) != null; } catch (Exception e) {} return false; } )
-                        .count());
-        return bestClasses.stream()
-            .map(bestClass -> new ClassValue(
-                        bestClass,
-                        Arrays.stream(bestClass.getRecordComponents()).map(RecordComponent::getAccessor).toList(),
-                        config.customMappings().containsKey(bestClass)
-                        ? config.customMappings().get(bestClass).apply(node)
-                        : buildFromClass(node, bestClass, parameterizedType)))
-            .sorted(withNullValuesLast.thenComparing(numberOfNonNullComponents.reversed()))
-            .findFirst()
-            .map(ClassValue::value)
-            .map(cls::cast)
-            .orElse(null);
+        // Count, for each candidate record, how many of its fields are present in the json
+        int[] hits = new int[candidates.size()];
+        for (String jsonFieldName : jsonFieldNames) {
+            if (plan.candidatesByJsonName().get(jsonFieldName) instanceof int[] indices) {
+                for (int i : indices) hits[i]++;
+            }
+        }
+
+        // Most hits wins, and on equal hits the least misses wins
+        List<Candidate> bestCandidates = new ArrayList<>();
+        int bestHit = -1;
+        int bestMiss = Integer.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            var candidate = candidates.get(i);
+            int hit = hits[i];
+            int miss = candidate.jsonNames().size() - hit;
+            if (hit > bestHit || (hit == bestHit && miss < bestMiss)) {
+                bestCandidates.clear();
+                bestHit = hit;
+                bestMiss = miss;
+            }
+            if (hit == bestHit && miss == bestMiss) {
+                bestCandidates.add(candidate);
+            }
+        }
+
+        if (bestCandidates.size() == 1) {
+            return cls.cast(build(bestCandidates.getFirst(), node, parameterizedType));
+        }
+
+        // Tied candidates are all built, and the one with the most non-null components wins -
+        // which of the tied candidates can be built from the json, and how fully,
+        // depends on the values and on any custom mappers, not only on which fields are present
+        Object best = null;
+        int bestNonNull = -1;
+        for (var candidate : bestCandidates) {
+            Object value = build(candidate, node, parameterizedType);
+            if (value == null) continue;
+            int nonNull = candidate.nonNullComponents(value);
+            if (nonNull > bestNonNull) {
+                best = value;
+                bestNonNull = nonNull;
+            }
+        }
+        return cls.cast(best);
+    }
+
+    private Object build(Candidate candidate, YayNode node, ParameterizedType parameterizedType) {
+        return config.customMappings().containsKey(candidate.cls())
+            ? config.customMappings().get(candidate.cls()).apply(node)
+            : buildFromClass(node, candidate.cls(), parameterizedType);
+    }
+
+    // The permitted record classes of a sealed interface hierarchy,
+    // with an index from json field name to the records which have that field.
+    record SealedPlan(List<Candidate> candidates, Map<String, int[]> candidatesByJsonName) {}
+    record Candidate(Class<?> cls, List<String> jsonNames, List<MethodHandle> accessors) {
+        int nonNullComponents(Object value) {
+            int count = 0;
+            for (var accessor : accessors) {
+                try {
+                    if ((Object) accessor.invokeExact(value) != null) count++;
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    // An accessor which fails counts as a null component
+                }
+            }
+            return count;
+        }
+    }
+
+    private SealedPlan sealedPlan(Class<?> cls) {
+        var candidates = new ArrayList<Candidate>();
+        var candidatesByJsonName = new HashMap<String, int[]>();
+        for (var rec : permittedRecordClassesOfSealedInterfaceHierarchy(cls)) {
+            var fieldMappings = config.fieldMappings().getOrDefault(rec, Map.of());
+            var jsonNames = new ArrayList<String>();
+            var accessors = new ArrayList<MethodHandle>();
+            for (var rc : rec.getRecordComponents()) {
+                var jsonName = strings.canonical(fieldMappings.getOrDefault(rc.getName(), rc.getName()));
+                jsonNames.add(jsonName);
+                accessors.add(accessor(rc));
+                candidatesByJsonName.merge(jsonName, new int[] { candidates.size() }, (prev, next) -> {
+                    int[] merged = Arrays.copyOf(prev, prev.length + 1);
+                    merged[prev.length] = next[0];
+                    return merged;
+                });
+            }
+            candidates.add(new Candidate(rec, List.copyOf(jsonNames), List.copyOf(accessors)));
+        }
+        return new SealedPlan(List.copyOf(candidates), Map.copyOf(candidatesByJsonName));
+    }
+
+    // The accessor of a record component, as (Object)Object
+    private static MethodHandle accessor(RecordComponent rc) {
+        try {
+            YayMapper.class.getModule().addReads(rc.getDeclaringRecord().getModule());
+            return MethodHandles.lookup().unreflect(rc.getAccessor())
+                .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Couldn't access " + rc.getName() + " of " + rc.getDeclaringRecord().getName(), e);
+        }
     }
 
     private List<Class<?>> permittedRecordClassesOfSealedInterfaceHierarchy(Class<?> cls) {
@@ -340,6 +653,8 @@ public class YayMapper {
                         yield cls.cast(MethodHandles.lookup()
                             .findStatic(cls, "valueOf", MethodType.methodType(cls, int.class))
                             .invoke(number.intValue()));
+                    } catch (Error e) {
+                        throw e;
                     } catch (Throwable t) {
                         t.printStackTrace(System.err);
                         yield null;
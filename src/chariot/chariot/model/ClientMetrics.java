@@ -0,0 +1,57 @@
+package chariot.model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/// Metrics of the requests sent by a client
+///
+/// @param lanes     The requests to each of the api, explorer, tablebase and engine services
+/// @param caches    The caches which are enabled - the `responses` cache, and the result caches, such as `games`
+/// @param coalesced Number of requests which weren't sent, because they shared the response of an identical request in flight
+public record ClientMetrics(List<Lane> lanes, List<Cache> caches, long coalesced) {
+
+    public enum Service { api, explorer, tablebase, engine }
+
+    /// The requests to one service
+    ///
+    /// @param service    The service
+    /// @param requests   Number of requests which have been sent
+    /// @param streams    Number of streams which have been connected
+    /// @param inFlight   Number of requests and streams in progress
+    /// @param queued     Number of requests and streams waiting for their turn
+    /// @param waited     Total time requests and streams have waited for their turn
+    /// @param throttled  Number of times the service indicated throttling (status code 429)
+    /// @param reconnects Number of times a stream has reconnected
+    public record Lane(
+            Service service,
+            long requests,
+            long streams,
+            int inFlight,
+            int queued,
+            Duration waited,
+            long throttled,
+            long reconnects) {}
+
+    /// The lookups in one cache
+    ///
+    /// @param name      The name of the cache
+    /// @param hits      Number of lookups which were served from the cache
+    /// @param misses    Number of lookups which weren't
+    /// @param evictions Number of entries which have been evicted to make room for others
+    /// @param size      Number of entries in the cache
+    public record Cache(String name, long hits, long misses, long evictions, int size) {}
+
+    public ClientMetrics {
+        lanes = List.copyOf(lanes);
+        caches = List.copyOf(caches);
+    }
+
+    public Lane lane(Service service) {
+        return lanes.stream().filter(lane -> lane.service() == service).findFirst().orElseThrow();
+    }
+
+    public Optional<Cache> cache(String name) {
+        return caches.stream().filter(cache -> cache.name().equals(name)).findFirst();
+    }
+}
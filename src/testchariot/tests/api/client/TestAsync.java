@@ -0,0 +1,116 @@
+package tests.api.client;
+
+import util.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import chariot.Client;
+import chariot.model.*;
+import chariot.model.ClientMetrics.Service;
+
+import static util.Assert.*;
+
+public class TestAsync {
+
+    static Scenario.Script text(String path, String body) {
+        return Scenario.script(
+                List.of(Scenario.path(path)),
+                List.of(
+                    Scenario.status(200),
+                    Scenario.body(body),
+                    Scenario.header("content-type", "text/plain")));
+    }
+
+    @Test
+    public void requestsAreQueuedWithoutBlocking() {
+        var scenario = Scenario.sequence(List.of(
+                    text("/api/text/1", "one"),
+                    text("/api/text/2", "two"),
+                    text("/api/text/3", "three")));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri()));
+            var endpoint = client.custom().of(line -> line).path("/api/text/%s").toOne();
+
+            // With the default concurrency of one request at a time,
+            // the second and third request wait for their turn
+            var futures = List.of(1, 2, 3).stream()
+                .map(n -> endpoint.requestAsync(request -> request.path(n)))
+                .toList();
+
+            var result = futures.stream()
+                .map(CompletableFuture::join)
+                .map(one -> one instanceof Some<String> some ? some.value() : one.toString())
+                .toList();
+
+            assertEquals(List.of("one", "two", "three"), result);
+            var api = client.metrics().lane(Service.api);
+            assertEquals(3L, api.requests());
+            assertEquals(0, api.inFlight());
+            assertEquals(0, api.queued());
+        }
+    }
+
+    @Test
+    public void publisherHonorsDemand() {
+        var scenario = Scenario.sequence(List.of(
+                    Scenario.script(
+                        List.of(Scenario.path("/api/stream/text")),
+                        List.of(
+                            Scenario.status(200),
+                            Scenario.streamBodies(List.of("a\n", "b\n", "c\n")),
+                            Scenario.header("content-type", "application/x-ndjson")))));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri()));
+            var publisher = client.custom().of(line -> line).path("/api/stream/text").toMany()
+                .publisher(request -> request.stream());
+
+            var received = new ArrayList<String>();
+            var done = new CompletableFuture<List<String>>();
+            publisher.subscribe(new Flow.Subscriber<String>() {
+                Flow.Subscription subscription;
+                @Override public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+                @Override public void onNext(String item) {
+                    received.add(item);
+                    subscription.request(1);
+                }
+                @Override public void onError(Throwable throwable) { done.completeExceptionally(throwable); }
+                @Override public void onComplete() { done.complete(List.copyOf(received)); }
+            });
+
+            assertEquals(List.of("a", "b", "c"), done.orTimeout(10, TimeUnit.SECONDS).join());
+        }
+    }
+
+    @Test
+    public void publisherSignalsFailedRequest() {
+        var scenario = Scenario.single(
+                List.of(Scenario.path("/api/stream/text")),
+                List.of(Scenario.status(404), Scenario.body("{\"error\":\"Not found\"}")));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri()));
+            var publisher = client.custom().of(line -> line).path("/api/stream/text").toMany()
+                .publisher(request -> request.stream());
+
+            var done = new CompletableFuture<Throwable>();
+            publisher.subscribe(new Flow.Subscriber<String>() {
+                @Override public void onSubscribe(Flow.Subscription subscription) { subscription.request(1); }
+                @Override public void onNext(String item) { done.complete(null); }
+                @Override public void onError(Throwable throwable) { done.complete(throwable); }
+                @Override public void onComplete() { done.complete(null); }
+            });
+
+            var error = done.orTimeout(10, TimeUnit.SECONDS).join();
+            assertTrue(error != null && error.getMessage().startsWith("404"), "Expected a 404 error, got " + error);
+        }
+    }
+}
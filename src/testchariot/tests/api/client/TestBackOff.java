@@ -0,0 +1,137 @@
+package tests.api.client;
+
+import util.*;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chariot.Client;
+import chariot.model.*;
+import chariot.model.ClientMetrics.Service;
+
+import static util.Assert.*;
+
+public class TestBackOff {
+
+    static final String path = "/api/resource";
+    static final String masters = """
+        {"white":1,"draws":2,"black":3,"moves":[],"topGames":[]}""";
+
+    static Scenario throttledOnce(List<Scenario.ResponseProperty> throttled, AtomicInteger requests) {
+        var withStatus = new ArrayList<Scenario.ResponseProperty>(throttled);
+        withStatus.addFirst(Scenario.status(429));
+        return Scenario.sequence(List.of(
+                    Scenario.script(List.of(Scenario.path(path)), withStatus),
+                    Scenario.script(List.of(Scenario.path(path)), List.of(Scenario.status(200), Scenario.body("text")))))
+            .withAdditionalProperty(Scenario.logging(log -> { if (log.contains(">>> Request Path")) requests.incrementAndGet(); }));
+    }
+
+    static Scenario explorer() {
+        return Scenario.single(
+                List.of(Scenario.path("/masters")),
+                List.of(Scenario.status(200), Scenario.body(masters)));
+    }
+
+    @Test
+    public void retryAfterInSeconds() {
+        var requests = new AtomicInteger();
+        try (var stubServer = StubServer.start(throttledOnce(List.of(Scenario.header("retry-after", "1")), requests))) {
+            var client = Client.basic(c -> c.api(stubServer.uri()).retries(1));
+            var endpoint = client.custom().of(line -> line).path(path).toOne();
+
+            long start = System.nanoTime();
+            var result = endpoint.request(request -> {});
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertEquals(new Some<>("text"), result);
+            assertEquals(2, requests.get());
+            assertTrue(elapsed.toMillis() >= 900, "Retried after " + elapsed);
+            assertTrue(elapsed.toMillis() < 10_000, "Retried after " + elapsed);
+            assertEquals(1L, client.metrics().lane(Service.api).throttled());
+        }
+    }
+
+    @Test
+    public void retryAfterAsDate() {
+        var requests = new AtomicInteger();
+        // Whole seconds, so the back-off is between one and two seconds
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(2));
+        try (var stubServer = StubServer.start(throttledOnce(List.of(Scenario.header("retry-after", date)), requests))) {
+            var client = Client.basic(c -> c.api(stubServer.uri()).retries(1));
+            var endpoint = client.custom().of(line -> line).path(path).toOne();
+
+            long start = System.nanoTime();
+            var result = endpoint.request(request -> {});
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertEquals(new Some<>("text"), result);
+            assertEquals(2, requests.get());
+            assertTrue(elapsed.toMillis() >= 900, "Retried after " + elapsed);
+            assertTrue(elapsed.toMillis() < 10_000, "Retried after " + elapsed);
+        }
+    }
+
+    @Test
+    public void missingRetryAfterPausesOnlyItsLane() {
+        var requests = new AtomicInteger();
+        try (var apiServer = StubServer.start(throttledOnce(List.of(), requests));
+             var explorerServer = StubServer.start(explorer())) {
+            var client = Client.auth(c -> c
+                    .api(apiServer.uri())
+                    .servers(s -> s.explorer(explorerServer.uri()))
+                    .retries(0), "token");
+            var endpoint = client.custom().of(line -> line).path(path).toOne();
+
+            assertTrue(endpoint.request(request -> {}) instanceof Fail<String>(int status, _) && status == 429, "Expected 429");
+
+            // The api lane backs off for a minute...
+            var pending = endpoint.requestAsync(request -> {});
+
+            // ...while the explorer lane continues
+            long start = System.nanoTime();
+            var result = client.openingExplorer().masters();
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertTrue(result instanceof Some<ExploreResult.OpeningDB> some && some.value().draws() == 2, "masters " + result);
+            assertTrue(elapsed.toMillis() < 1_000, "Explorer waited " + elapsed);
+            assertFalse(pending.isDone(), "Expected the api request to wait for the back-off");
+            assertEquals(1, requests.get());
+            assertEquals(1L, client.metrics().lane(Service.api).throttled());
+            assertEquals(0L, client.metrics().lane(Service.explorer).throttled());
+            pending.cancel(true);
+        }
+    }
+
+    @Test
+    public void backOffOfOneLaneDoesNotPauseOthers() {
+        var requests = new AtomicInteger();
+        try (var apiServer = StubServer.start(throttledOnce(List.of(Scenario.header("retry-after", "2")), requests));
+             var explorerServer = StubServer.start(explorer())) {
+            var client = Client.auth(c -> c
+                    .api(apiServer.uri())
+                    .servers(s -> s.explorer(explorerServer.uri()))
+                    .retries(1), "token");
+            var endpoint = client.custom().of(line -> line).path(path).toOne();
+
+            // Throttled, and retried after the back-off
+            var retried = endpoint.requestAsync(request -> {});
+            while (client.metrics().lane(Service.api).throttled() == 0) Thread.onSpinWait();
+
+            long start = System.nanoTime();
+            var result = client.openingExplorer().masters();
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertTrue(result instanceof Some<ExploreResult.OpeningDB> some && some.value().draws() == 2, "masters " + result);
+            assertTrue(elapsed.toMillis() < 1_000, "Explorer waited " + elapsed);
+            assertFalse(retried.isDone(), "Expected the api request to wait for the back-off");
+
+            assertEquals(new Some<>("text"), retried.join());
+            assertEquals(2, requests.get());
+        }
+    }
+}
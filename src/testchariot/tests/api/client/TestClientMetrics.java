@@ -0,0 +1,162 @@
+package tests.api.client;
+
+import util.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import chariot.Client;
+import chariot.internal.Endpoint;
+import chariot.model.*;
+import chariot.model.ClientMetrics.Service;
+
+import static util.Assert.*;
+
+public class TestClientMetrics {
+
+    @Test
+    public void laneCountsRequests() {
+        String gameId = "q7ZvsdUF";
+
+        var scenario = Scenario.single(
+                List.of(Scenario.path(Endpoint.gameById.endpoint().formatted(gameId))),
+                List.of(
+                    Scenario.status(404),
+                    Scenario.body("{\"error\":\"Not found\"}"),
+                    Scenario.header("content-type", "application/json")));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri()));
+            assertEquals(0L, client.metrics().lane(Service.api).requests());
+
+            client.games().byGameId(gameId);
+
+            var api = client.metrics().lane(Service.api);
+            assertEquals(1L, api.requests());
+            assertEquals(0, api.inFlight());
+            assertEquals(0L, client.metrics().lane(Service.explorer).requests());
+        }
+    }
+
+    @Test
+    public void responseCacheKeepsRepresentationsApart() {
+        String path = "/api/resource";
+        var scenario = Scenario.sequence(List.of(
+                    Scenario.script(
+                        List.of(Scenario.path(path)),
+                        List.of(
+                            Scenario.status(200),
+                            Scenario.body("text"),
+                            Scenario.header("content-type", "text/plain"),
+                            Scenario.header("etag", "\"text\""))),
+                    Scenario.script(
+                        List.of(Scenario.path(path)),
+                        List.of(
+                            Scenario.status(200),
+                            Scenario.body("{\"json\":true}"),
+                            Scenario.header("content-type", "application/json"),
+                            Scenario.header("etag", "\"json\""))),
+                    Scenario.script(
+                        List.of(Scenario.path(path)),
+                        List.of(Scenario.status(304)))));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri()).responseCache(10));
+            var endpoint = client.custom().of(line -> line).path(path).toOne();
+
+            var text = endpoint.request(request -> request.headers(Map.of("accept", "text/plain")));
+            var json = endpoint.request(request -> request.headers(Map.of("accept", "application/json")));
+            var cachedText = endpoint.request(request -> request.headers(Map.of("accept", "text/plain")));
+
+            assertEquals(new Some<>("text"), text);
+            assertEquals(new Some<>("{\"json\":true}"), json);
+            assertEquals(new Some<>("text"), cachedText);
+
+            var responses = client.metrics().cache("responses").orElseThrow();
+            assertEquals(1L, responses.hits());
+            assertEquals(2L, responses.misses());
+            assertEquals(2, responses.size());
+        }
+    }
+
+    @Test
+    public void revalidatedResponseEvictedInFlightIsServed() {
+        String path = "/api/resource";
+        var revalidating = new CountDownLatch(1);
+        var evicted = new CountDownLatch(1);
+
+        // The revalidation is held at the server while another response evicts the cached one
+        var api = Scenario.sequence(List.of(
+                    Scenario.script(
+                        List.of(Scenario.path(path)),
+                        List.of(
+                            Scenario.status(200),
+                            Scenario.body("text"),
+                            Scenario.header("etag", "\"text\""))),
+                    Scenario.script(
+                        List.of(Scenario.path(path)),
+                        List.of(Scenario.status(304)))))
+            .withAdditionalProperty(Scenario.logging(log -> {
+                if (! log.contains(">>> Request Path") || ! log.contains("[if-none-match]")) return;
+                revalidating.countDown();
+                try { evicted.await(2, TimeUnit.SECONDS); } catch (InterruptedException _) {}
+            }));
+        var explorer = Scenario.single(
+                List.of(Scenario.path("/masters")),
+                List.of(
+                    Scenario.status(200),
+                    Scenario.body("""
+                        {"white":1,"draws":2,"black":3,"moves":[],"topGames":[]}"""),
+                    Scenario.header("etag", "\"masters\"")));
+
+        try (var apiServer = StubServer.start(api);
+             var explorerServer = StubServer.start(explorer)) {
+            var client = Client.auth(c -> c
+                    .api(apiServer.uri())
+                    .servers(s -> s.explorer(explorerServer.uri()))
+                    .responseCache(1), "token");
+            var endpoint = client.custom().of(line -> line).path(path).toOne();
+
+            assertEquals(new Some<>("text"), endpoint.request(request -> {}));
+
+            var revalidated = endpoint.requestAsync(request -> {});
+            assertTrue(revalidating.await(2, TimeUnit.SECONDS), "no revalidation");
+            assertTrue(client.openingExplorer().masters() instanceof Some, "masters");
+            evicted.countDown();
+
+            assertEquals(new Some<>("text"), revalidated.join());
+            var responses = client.metrics().cache("responses").orElseThrow();
+            assertEquals(1L, responses.hits());
+        } catch (InterruptedException ie) {
+            fail(ie.getMessage());
+        }
+    }
+
+    @Test
+    public void identicalRequestsAreCoalesced() {
+        String path = "/api/resource";
+
+        // Only one response, so a second request would fail
+        var scenario = Scenario.single(
+                List.of(Scenario.path(path)),
+                List.of(
+                    Scenario.status(200),
+                    Scenario.body("text"),
+                    Scenario.header("content-type", "text/plain")));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri()));
+            var endpoint = client.custom().of(line -> line).path(path).toOne();
+
+            var first = endpoint.requestAsync(request -> {});
+            var second = endpoint.requestAsync(request -> {});
+
+            assertEquals(new Some<>("text"), first.join());
+            assertEquals(new Some<>("text"), second.join());
+            assertEquals(1L, client.metrics().coalesced());
+            assertEquals(1L, client.metrics().lane(Service.api).requests());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package tests.api.client;
+
+import util.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import chariot.Client;
+import chariot.internal.Endpoint;
+import chariot.model.*;
+import chariot.model.ClientMetrics.Service;
+import chariot.model.GameStateEvent.*;
+import chariot.model.TVFeedEvent.*;
+
+import static util.Assert.*;
+
+public class TestReconnect {
+
+    static final String featured = """
+        {"t":"featured","d":{"id":"qVSOPtMc","orientation":"white","players":[],"fen":"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"}}
+        """;
+    static final String fen1 = """
+        {"t":"fen","d":{"fen":"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR","lm":"e2e4","wc":60,"bc":60}}
+        """;
+    static final String fen2 = """
+        {"t":"fen","d":{"fen":"rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR","lm":"e7e5","wc":59,"bc":60}}
+        """;
+
+    static Scenario.Script stream(String path, List<String> lines) {
+        return Scenario.script(
+                List.of(Scenario.path(path)),
+                List.of(
+                    Scenario.status(200),
+                    Scenario.streamBodies(lines),
+                    Scenario.header("content-type", "application/x-ndjson")));
+    }
+
+    @Test
+    public void replayedLinesAreLeftOut() {
+        String path = Endpoint.gameTVFeed.endpoint();
+        var scenario = Scenario.sequence(List.of(
+                    stream(path, List.of(featured, fen1)),
+                    stream(path, List.of(featured, fen1, fen2))));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri())
+                    .reconnect(r -> r.backOff(Duration.ofMillis(1), Duration.ofMillis(1)).maxAttempts(1)));
+
+            var result = client.games().tvFeed().stream().toList();
+
+            assertEquals(List.of(Featured.class, Fen.class, Fen.class),
+                    result.stream().map(Object::getClass).toList());
+            assertEquals("e7e5", result.getLast() instanceof Fen fen ? fen.lastMove() : null);
+            // Reconnected once to continue the stream, and once more before giving up
+            assertEquals(2L, client.metrics().lane(Service.api).reconnects());
+        }
+    }
+
+    @Test
+    public void gameStreamEndsWhenGameIsOver() {
+        String gameId = "gameId";
+        String gone = """
+            {"type":"opponentGone","gone":true}
+            """;
+        String back = """
+            {"type":"opponentGone","gone":false}
+            """;
+        String mate = """
+            {"type":"gameState","moves":"e2e4","wtime":1000,"btime":1000,"winc":0,"binc":0,"status":"mate","winner":"white"}
+            """;
+        var scenario = Scenario.sequence(List.of(
+                    stream(Endpoint.streamBoardGameEvents.endpoint().formatted(gameId), List.of(gone, back, gone, mate))));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.auth(c -> c.api(stubServer.uri())
+                    .reconnect(r -> r.backOff(Duration.ofMillis(1), Duration.ofMillis(1))), "token");
+
+            var result = client.board().connectToGame(gameId).stream().toList();
+
+            // Repeated events are passed on
+            assertEquals(List.of(OpponentGone.class, OpponentGone.class, OpponentGone.class, State.class),
+                    result.stream().map(Object::getClass).toList());
+            assertEquals(0L, client.metrics().lane(Service.api).reconnects());
+        }
+    }
+
+    @Test
+    public void gameStreamReadsStatusOfGame() {
+        String gameId = "gameId";
+        // Whitespace after the colons, and a status of a player which isn't the status of the game
+        String full = """
+            {"type": "gameFull", "id": "gameId", "rated": false, "variant": {"key": "standard", "name": "Standard", "short": "Std"}, "clock": {"initial": 1200000, "increment": 10000}, "speed": "classical", "perf": {"name": "Classical"}, "createdAt": 1523825103562, "white": {"id": "white", "name": "White", "rating": 1500, "status": "aborted"}, "black": {"id": "black", "name": "Black", "rating": 1500}, "initialFen": "startpos", "state": {"type": "gameState", "moves": "e2e4", "wtime": 1000, "btime": 1000, "winc": 0, "binc": 0, "status": "started"}}
+            """;
+        String mate = """
+            {"type": "gameState", "moves": "e2e4", "wtime": 1000, "btime": 1000, "winc": 0, "binc": 0, "status": "mate", "winner": "white"}
+            """;
+        String path = Endpoint.streamBoardGameEvents.endpoint().formatted(gameId);
+        var scenario = Scenario.sequence(List.of(
+                    stream(path, List.of(full)),
+                    stream(path, List.of(full, mate))));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.auth(c -> c.api(stubServer.uri())
+                    .reconnect(r -> r.backOff(Duration.ofMillis(1), Duration.ofMillis(1))), "token");
+
+            var result = client.board().connectToGame(gameId).stream().toList();
+
+            // The stream continues past the status of the player, and the replayed full state is passed on
+            assertEquals(List.of(Full.class, Full.class, State.class),
+                    result.stream().map(Object::getClass).toList());
+            assertEquals(1L, client.metrics().lane(Service.api).reconnects());
+        }
+    }
+
+    @Test
+    public void identicalSnapshotsAreLeftOut() {
+        String roundId = "roundId";
+        String gameA = """
+            [White "A"]
+            [Result "1-0"]
+
+            1. e4 e5 1-0
+
+
+            """;
+        String gameB = """
+            [White "B"]
+            [Result "*"]
+
+            1. d4 *
+
+
+            """;
+        String gameBUpdated = """
+            [White "B"]
+            [Result "*"]
+
+            1. d4 d5 *
+
+
+            """;
+        String path = Endpoint.streamBroadcast.endpoint().formatted(roundId);
+        var scenario = Scenario.sequence(List.of(
+                    stream(path, List.of(gameA, gameB)),
+                    stream(path, List.of(gameA, gameBUpdated))));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri())
+                    .reconnect(r -> r.backOff(Duration.ofMillis(1), Duration.ofMillis(1)).maxAttempts(1)));
+
+            var result = client.broadcasts().streamBroadcast(roundId).stream()
+                .map(pgn -> pgn.tags().get("White") + " " + pgn.moves())
+                .toList();
+
+            assertEquals(List.of("A e4 e5", "B d4", "B d4 d5"), result);
+        }
+    }
+}
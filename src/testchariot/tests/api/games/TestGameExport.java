@@ -2,6 +2,7 @@ package tests.api.games;
 
 import util.*;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -115,4 +116,50 @@ public class TestGameExport {
             assertEquals(expected, result);
         }
     }
+
+    @Test
+    public void gameExportCachedWhenFinished() {
+
+        String gameId = "cachedId";
+        String responseBody = """
+        {
+          "id": "cachedId",
+          "rated": false,
+          "variant": "standard",
+          "speed": "blitz",
+          "perf": "blitz",
+          "createdAt": 1514505150384,
+          "lastMoveAt": 1514505592843,
+          "status": "mate",
+          "players": {
+            "white": { "user": { "name": "White", "id": "white" }, "rating": 1500 },
+            "black": { "user": { "name": "Black", "id": "black" }, "rating": 1500 }
+          },
+          "winner": "white"
+        }
+        """.transform(Util::compactJson); // single-line
+
+        // Only one response, so a second request would fail
+        var scenario = Scenario.single(
+                List.of(Scenario.path(Endpoint.gameById.endpoint().formatted(gameId))),
+                List.of(
+                    Scenario.status(200),
+                    Scenario.body(responseBody),
+                    Scenario.header("content-type", "application/json")));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.basic(c -> c.api(stubServer.uri()).resultCache(r -> r.games(10, Duration.ZERO)));
+
+            var first = client.games().byGameId(gameId);
+            var second = client.games().byGameId(gameId);
+
+            assertTrue(first instanceof Some<Game> some && some.value().id().equals(gameId), () -> "Expected game, got " + first);
+            assertEquals(first, second);
+
+            var games = client.metrics().cache("games").orElseThrow();
+            assertEquals(1L, games.hits());
+            assertEquals(1L, games.misses());
+            assertEquals(1, games.size());
+        }
+    }
 }
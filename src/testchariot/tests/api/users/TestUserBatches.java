@@ -0,0 +1,74 @@
+package tests.api.users;
+
+import util.*;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import chariot.Client;
+import chariot.api.UsersApi.BatchFailure;
+import chariot.model.*;
+
+import static util.Assert.*;
+
+public class TestUserBatches {
+
+    // 250 user ids, fetched in batches of 100, 100 and 50 - of which the second batch fails
+    static final List<String> userIds = IntStream.range(0, 250).mapToObj(i -> "user" + i).toList();
+
+    static Scenario.Script status(int from, int to) {
+        String body = IntStream.range(from, to)
+            .mapToObj(i -> """
+                {"id":"user%d","name":"User%d"}""".formatted(i, i))
+            .collect(java.util.stream.Collectors.joining(",", "[", "]"));
+        return Scenario.script(
+                List.of(Scenario.path("/api/users/status")),
+                List.of(Scenario.status(200), Scenario.body(body)));
+    }
+
+    static Scenario secondBatchFails() {
+        return Scenario.sequence(List.of(
+                    status(0, 100),
+                    Scenario.script(
+                        List.of(Scenario.path("/api/users/status")),
+                        List.of(Scenario.status(500), Scenario.body("{\"error\":\"Internal error\"}"))),
+                    status(200, 250)));
+    }
+
+    @Test
+    public void failedBatchIsPassedToHandler() {
+        try (var stubServer = StubServer.start(secondBatchFails())) {
+            var client = Client.basic(c -> c.api(stubServer.uri()));
+
+            var failures = new ArrayList<BatchFailure>();
+            var ids = client.users().statusByIds(userIds, p -> p.onBatchFailure(failures::add)).stream()
+                .map(UserStatus::id)
+                .toList();
+
+            assertEquals(150, ids.size());
+            assertEquals("user0", ids.getFirst());
+            assertEquals("user200", ids.get(100));
+            assertEquals(1, failures.size());
+            assertEquals(userIds.subList(100, 200), failures.getFirst().userIds());
+            assertEquals(500, failures.getFirst().status());
+        }
+    }
+
+    @Test
+    public void failedLaterBatchWithoutHandlerEndsStream() {
+        try (var stubServer = StubServer.start(secondBatchFails())) {
+            var client = Client.basic(c -> c.api(stubServer.uri()));
+
+            var received = new ArrayList<String>();
+            try {
+                client.users().statusByIds(userIds).stream()
+                    .map(UserStatus::id)
+                    .forEach(received::add);
+                fail("Expected the failed second batch to end the stream");
+            } catch (IllegalStateException ise) {
+                assertTrue(ise.getMessage().contains("500"), "Expected the status in the message, got " + ise.getMessage());
+            }
+            assertEquals(100, received.size());
+        }
+    }
+}
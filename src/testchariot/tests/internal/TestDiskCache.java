@@ -0,0 +1,135 @@
+package tests.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chariot.Client;
+import chariot.internal.DiskCache;
+import chariot.model.*;
+import util.*;
+
+import static util.Assert.*;
+
+public class TestDiskCache {
+
+    static Path tempFile() {
+        try {
+            return Files.createTempDirectory("chariot-disk-cache").resolve("cache.bin");
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    @Test
+    public void reopenRebuildsIndex() {
+        var file = tempFile();
+        var cache = DiskCache.open(file, 10_000);
+        cache.put("a", List.of("one", "two"));
+        cache.put("b", List.of());
+        cache.put("a", List.of("three"));
+        cache.close();
+
+        var reopened = DiskCache.open(file, 10_000);
+        assertEquals(List.of("three"), reopened.get("a"));
+        assertEquals(List.of(), reopened.get("b"));
+        assertEquals(null, reopened.get("c"));
+        reopened.close();
+    }
+
+    @Test
+    public void truncatedTailIsDropped() throws IOException {
+        var file = tempFile();
+        var cache = DiskCache.open(file, 10_000);
+        cache.put("a", List.of("one"));
+        cache.put("b", List.of("two"));
+        cache.close();
+        long complete = Files.size(file);
+
+        // A record claiming a 1-byte key and a 100-byte value, interrupted after 3 bytes of it
+        var partial = ByteBuffer.allocate(11).putInt(1).putInt(100).put("c12".getBytes()).array();
+        Files.write(file, partial, StandardOpenOption.APPEND);
+
+        var reopened = DiskCache.open(file, 10_000);
+        assertEquals(complete, reopened.fileBytes());
+        assertEquals(List.of("one"), reopened.get("a"));
+        assertEquals(List.of("two"), reopened.get("b"));
+        assertEquals(null, reopened.get("c"));
+        reopened.put("c", List.of("three"));
+        reopened.close();
+
+        var again = DiskCache.open(file, 10_000);
+        assertEquals(List.of("one"), again.get("a"));
+        assertEquals(List.of("two"), again.get("b"));
+        assertEquals(List.of("three"), again.get("c"));
+        again.close();
+    }
+
+    @Test
+    public void leastRecentlyUsedAreEvictedAndFileCompacted() {
+        var file = tempFile();
+        long maxBytes = 1_000;
+        var cache = DiskCache.open(file, maxBytes);
+        cache.put("first", List.of("x".repeat(40)));
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, List.of("x".repeat(40)));
+            // Keep the first entry recently used
+            assertTrue(cache.get("first") != null, "first evicted at " + i);
+            assertTrue(cache.fileBytes() <= maxBytes + 100, "file of %d bytes at %d".formatted(cache.fileBytes(), i));
+        }
+        assertEquals(null, cache.get("key0"));
+        assertEquals(List.of("x".repeat(40)), cache.get("key99"));
+        cache.close();
+
+        var reopened = DiskCache.open(file, maxBytes);
+        assertEquals(null, reopened.get("key0"));
+        assertEquals(List.of("x".repeat(40)), reopened.get("first"));
+        assertEquals(List.of("x".repeat(40)), reopened.get("key99"));
+        reopened.close();
+        assertTrue(! Files.exists(file.resolveSibling("cache.bin.tmp")), "compaction left its temporary file");
+    }
+
+    @Test
+    public void replacedRecordsAreCompacted() {
+        var file = tempFile();
+        long maxBytes = 1_000;
+        var cache = DiskCache.open(file, maxBytes);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key", List.of("value" + i));
+            assertTrue(cache.fileBytes() <= 2 * 20 + maxBytes / 4 + 20, "file of %d bytes at %d".formatted(cache.fileBytes(), i));
+        }
+        assertEquals(List.of("value99"), cache.get("key"));
+        cache.close();
+    }
+
+    @Test
+    public void onlyMastersLookupsOfExplorerAreKept() {
+        var requests = new AtomicInteger();
+        String body = """
+            {"white":1,"draws":2,"black":3,"moves":[],"topGames":[]}""";
+        var scenario = Scenario.sequence(List.of(
+                    Scenario.script(List.of(Scenario.path("/masters")), List.of(Scenario.status(200), Scenario.body(body))),
+                    Scenario.script(List.of(Scenario.path("/lichess")), List.of(Scenario.status(200), Scenario.body(body))),
+                    Scenario.script(List.of(Scenario.path("/lichess")), List.of(Scenario.status(200), Scenario.body(body)))))
+            .withAdditionalProperty(Scenario.logging(log -> { if (log.contains(">>> Request Path")) requests.incrementAndGet(); }));
+
+        var file = tempFile();
+        try (var stubServer = StubServer.start(scenario)) {
+            var client = Client.auth(c -> c
+                    .servers(s -> s.explorer(stubServer.uri()))
+                    .diskCache(file, 10_000), "token");
+
+            for (int i = 0; i < 2; i++) {
+                var masters = client.openingExplorer().masters();
+                assertTrue(masters instanceof Some<ExploreResult.OpeningDB> some && some.value().draws() == 2, "masters " + masters);
+            }
+            for (int i = 0; i < 2; i++) {
+                var lichess = client.openingExplorer().lichess();
+                assertTrue(lichess instanceof Some<ExploreResult.OpeningDB> some && some.value().draws() == 2, "lichess " + lichess);
+            }
+        }
+        assertEquals(3, requests.get());
+    }
+}
@@ -0,0 +1,98 @@
+package tests.internal;
+
+import java.io.*;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+import chariot.internal.LinesBodySubscriber;
+import util.Test;
+
+import static util.Assert.*;
+
+public class TestLinesBodySubscriber {
+
+    static final class StubSubscription implements Flow.Subscription {
+        boolean cancelled;
+        @Override public void request(long n) {}
+        @Override public void cancel() { cancelled = true; }
+    }
+
+    static BodySubscriber<Stream<String>> subscriber(Duration idleTimeout, StubSubscription subscription) {
+        var subscriber = idleTimeout == null
+            ? LinesBodySubscriber.handler().apply(null)
+            : LinesBodySubscriber.handler(idleTimeout).apply(null);
+        subscriber.onSubscribe(subscription);
+        return subscriber;
+    }
+
+    static List<String> lines(List<ByteBuffer> chunks) {
+        var subscriber = subscriber(null, new StubSubscription());
+        for (var chunk : chunks) subscriber.onNext(List.of(chunk));
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join().toList();
+    }
+
+    static List<ByteBuffer> chunks(byte[] bytes, int size, boolean direct) {
+        var chunks = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < bytes.length; i += size) {
+            int length = Math.min(size, bytes.length - i);
+            var chunk = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+            chunks.add(chunk.put(bytes, i, length).flip());
+        }
+        return chunks;
+    }
+
+    @Test
+    public void linesAsBufferedReader() {
+        String text = "first\nsecond\r\nthird\rå🙂ö\n\n\r\rlast line without terminator";
+        var expected = new BufferedReader(new StringReader(text)).lines().toList();
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        // every chunk size splits the lines, the \r\n and the multi-byte characters at different places
+        for (int size = 1; size <= bytes.length; size++) {
+            for (boolean direct : new boolean[] { false, true }) {
+                int chunkSize = size;
+                assertEquals(expected, lines(chunks(bytes, size, direct)), () -> "chunk size " + chunkSize + " direct " + direct);
+            }
+        }
+    }
+
+    @Test
+    public void terminatorAtEndOfBody() {
+        assertEquals(List.of("a"), lines(chunks("a\r".getBytes(), 1, false)));
+        assertEquals(List.of("a"), lines(chunks("a\r\n".getBytes(), 2, false)));
+        assertEquals(List.of("a", ""), lines(chunks("a\n\n".getBytes(), 3, false)));
+        assertEquals(List.of(), lines(List.of()));
+    }
+
+    @Test
+    public void idleTimeout() {
+        var subscription = new StubSubscription();
+        var subscriber = subscriber(Duration.ofMillis(50), subscription);
+        subscriber.onNext(List.of(ByteBuffer.wrap("line\npartial".getBytes())));
+
+        var iterator = subscriber.getBody().toCompletableFuture().join().iterator();
+        assertEquals("line", iterator.next());
+        try {
+            iterator.next();
+            fail("Expected a timeout");
+        } catch (UncheckedIOException e) {
+            assertTrue(e.getCause() instanceof HttpTimeoutException, () -> "Unexpected cause " + e.getCause());
+        }
+        assertTrue(subscription.cancelled, "Subscription cancelled after timeout");
+    }
+
+    @Test
+    public void closeCancels() {
+        var subscription = new StubSubscription();
+        var subscriber = subscriber(null, subscription);
+        subscriber.getBody().toCompletableFuture().join().close();
+        assertTrue(subscription.cancelled, "Subscription cancelled when stream closed");
+    }
+}
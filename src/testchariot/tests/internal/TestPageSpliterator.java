@@ -0,0 +1,97 @@
+package tests.internal;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.*;
+
+import chariot.internal.Util.PageSpliterator;
+import chariot.model.Page;
+import util.Test;
+
+import static util.Assert.*;
+
+public class TestPageSpliterator {
+
+    record IntPage(Integer currentPage, Integer maxPerPage, List<Integer> currentPageResults,
+            Integer nbResults, Integer previousPage, Integer nextPage, Integer nbPages) implements Page<Integer> {}
+
+    static final int perPage = 3;
+    static final int pages = 5;
+
+    static IntPage page(int pageNum, boolean knownNbPages) {
+        var results = IntStream.range((pageNum - 1) * perPage, pageNum * perPage).boxed().toList();
+        return new IntPage(pageNum, perPage, results,
+                knownNbPages ? pages * perPage : null,
+                pageNum > 1 ? pageNum - 1 : null,
+                pageNum < pages ? pageNum + 1 : null,
+                knownNbPages ? pages : null);
+    }
+
+    static final List<Integer> expected = IntStream.range(0, pages * perPage).boxed().toList();
+
+    @Test
+    public void allPagesInOrder() {
+        for (int lookahead : new int[] { 0, 1, 3 }) {
+            for (boolean known : new boolean[] { true, false }) {
+                var searched = ConcurrentHashMap.<Integer>newKeySet();
+                var spliterator = PageSpliterator.of(page(1, known), pageNum -> {
+                    assertTrue(searched.add(pageNum), "Page " + pageNum + " searched more than once");
+                    return page(pageNum, known);
+                }, lookahead);
+                var result = StreamSupport.stream(spliterator, false).toList();
+                assertEquals(expected, result, () -> "lookahead " + lookahead + " known " + known);
+                assertEquals(Set.of(2, 3, 4, 5), searched);
+            }
+        }
+    }
+
+    @Test
+    public void splitsPageRanges() {
+        var spliterator = PageSpliterator.of(page(1, true), pageNum -> page(pageNum, true), 1);
+        var result = StreamSupport.stream(spliterator, true).toList();
+        assertEquals(expected, result);
+
+        var unsplittable = PageSpliterator.of(page(1, false), pageNum -> page(pageNum, false), 1);
+        assertEquals(null, unsplittable.trySplit());
+    }
+
+    @Test
+    public void failedPageEndsUnknownRange() {
+        var empty = new IntPage(0, 0, List.of(), 0, 0, 0, 0);
+        var spliterator = PageSpliterator.of(page(1, false), pageNum -> pageNum == 3 ? empty : page(pageNum, false), 1);
+        var result = StreamSupport.stream(spliterator, false).toList();
+        assertEquals(expected.subList(0, 2 * perPage), result);
+    }
+
+    @Test
+    public void failedPageEndsKnownRange() {
+        var empty = new IntPage(0, 0, List.of(), 0, 0, 0, 0);
+        for (int lookahead : new int[] { 0, 1, 3 }) {
+            var spliterator = PageSpliterator.of(page(1, true), pageNum -> pageNum == 3 ? empty : page(pageNum, true), lookahead);
+            var result = StreamSupport.stream(spliterator, false).toList();
+            assertEquals(expected.subList(0, 2 * perPage), result, () -> "lookahead " + lookahead);
+        }
+    }
+
+    @Test
+    public void singlePageIsNotSplit() {
+        var single = new IntPage(1, perPage, List.of(0, 1, 2), 3, null, null, 1);
+        var spliterator = PageSpliterator.of(single, pageNum -> {
+            fail("Page " + pageNum + " searched");
+            return page(pageNum, true);
+        }, 1);
+        assertEquals(null, spliterator.trySplit());
+        assertEquals(List.of(0, 1, 2), StreamSupport.stream(spliterator, true).toList());
+    }
+
+    @Test
+    public void lastPageIsNotSplit() {
+        var spliterator = PageSpliterator.of(page(pages, true), pageNum -> {
+            fail("Page " + pageNum + " searched");
+            return page(pageNum, true);
+        }, 1);
+        assertEquals(null, spliterator.trySplit());
+        assertEquals(expected.subList((pages - 1) * perPage, pages * perPage),
+                StreamSupport.stream(spliterator, true).toList());
+    }
+}
@@ -3,6 +3,7 @@ package tests.internal.yayson;
 import java.util.List;
 
 import chariot.internal.yayson.Lexer;
+import chariot.internal.yayson.StringCache;
 import chariot.internal.yayson.Token;
 import chariot.internal.yayson.Token.*;
 
@@ -289,5 +290,18 @@ public class TestLexer {
         assertEquals(expected, tokens);
      }
 
-}
+    @Test
+    public void repeatedStringsAreShared() {
+        // A cache of its own, which no other parsing can evict entries from
+        var strings = new StringCache(16);
+        var first = (JsonString) Lexer.tokenize("""
+            { "speed": "blitz" }
+            """, strings).get(1);
+        var second = (JsonString) Lexer.tokenize("""
+            {"speed":"blitz"}
+            """, strings).get(1);
+        assertEquals("speed", second.string());
+        assertTrue(first.string() == second.string(), "Expected the same String instance");
+     }
 
+}
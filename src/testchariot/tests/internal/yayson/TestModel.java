@@ -3,9 +3,12 @@ package tests.internal.yayson;
 import java.time.ZonedDateTime;
 import java.util.*;
 
+import chariot.Client;
 import chariot.internal.Util;
+import chariot.internal.yayson.Parser;
 import chariot.internal.yayson.YayMapper;
-import util.Test;
+import chariot.model.Some;
+import util.*;
 
 import static util.Assert.*;
 
@@ -250,6 +253,36 @@ public class TestModel {
         }
     }
 
+    public sealed interface Outcome permits ByColor, ByText {}
+    public record ByColor(Winner value) implements Outcome {}
+    public record ByText(String value) implements Outcome {}
+
+    @Test
+    public void tiedCandidatesWithUnknownEnumValue() {
+        // Both candidates have the field, but only one of them can hold an unknown enum value
+        assertEquals(new ByText("draw"), mapper.fromString("""
+                    {"value":"draw"}""", Outcome.class));
+        assertEquals(new ByColor(Winner.white), mapper.fromString("""
+                    {"value":"white"}""", Outcome.class));
+    }
+
+    public sealed interface Labelled permits Custom, Plain {}
+    public record Custom(String label, String extra) implements Labelled {}
+    public record Plain(String label, String extra) implements Labelled {}
+
+    @Test
+    public void tiedCandidatesWithCustomMapper() {
+        // The custom mapper only reads the label, so the candidate built with both fields wins
+        var customMapper = YayMapper.mapper();
+        customMapper.setCustomMapper(Custom.class, node -> node instanceof Parser.YayObject yo
+                ? new Custom(yo.getString("label"), null)
+                : null);
+        assertEquals(new Plain("x", "y"), customMapper.fromString("""
+                    {"label":"x","extra":"y"}""", Labelled.class));
+        assertEquals(new Custom("x", null), customMapper.fromString("""
+                    {"label":"x"}""", Labelled.class));
+    }
+
     static sealed interface Fields {}
     public record One(int field1) implements Fields {}
     public record Two(int field1, int field2) implements Fields {}
@@ -328,6 +361,111 @@ public class TestModel {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void bindingMatchesTree() {
+        var json = """
+            {
+                "id": "abcdefgh",
+                "unknown": { "ignored": [1, 2, { "deep": null }] },
+                "top": { "b": true, "nest": { "s": "nested" }, "s": "top" },
+                "nests": [ { "key": "one" }, null, { "key": "two", "extra": 3 } ],
+                "opt": { "key": "optional" },
+                "wrapper": { "something": { "integer": 42 } },
+                "winner": "white"
+            }
+            """;
+
+        var bound = mapper.fromString(json, Bound.class);
+        var tree = mapper.fromYayTree(Parser.fromString(json), Bound.class);
+
+        assertNotNull(bound);
+        assertEquals(tree, bound);
+        assertEquals(3, bound.nests().size());
+        assertEquals(0, bound.count());
+        assertFalse(bound.missing().isPresent());
+    }
+
+    @Test
+    public void lazyListsMatchEager() {
+        var json = """
+            {
+                "id": "abcdefgh",
+                "nests": [ { "key": "one \\"]\\"" }, { "key": "two" } ],
+                "opt": { "key": "optional" },
+                "wrapper": { "something": { "string": "after lazy list" } }
+            }
+            """;
+
+        var eager = mapper.fromString(json, Bound.class);
+        var lazy = YayMapper.lazyMapper().fromString(json, Bound.class);
+
+        assertNotNull(lazy);
+        assertEquals("after lazy list", ((This) lazy.wrapper().something()).string());
+        assertEquals("one \"]\"", lazy.nests().get(0).key());
+        assertEquals(eager, lazy);
+    }
+
+    @Test
+    public void lazyListsPerClient() {
+        var json = """
+            {"id":"abcdefgh","nests":[{"key":"one"},{"key":"two"}]}""";
+        var scenario = Scenario.sequence(List.of(
+                    Scenario.script(List.of(Scenario.path("/api/bound")), List.of(Scenario.status(200), Scenario.body(json))),
+                    Scenario.script(List.of(Scenario.path("/api/bound")), List.of(Scenario.status(200), Scenario.body(json)))));
+
+        try (var stubServer = StubServer.start(scenario)) {
+            var lazyClient = Client.basic(c -> c.api(stubServer.uri()).lazyLists());
+            var eagerClient = Client.basic(c -> c.api(stubServer.uri()));
+
+            var lazy = lazyClient.custom().of(Bound.class).path("/api/bound").toOne().request(_ -> {});
+            var eager = eagerClient.custom().of(Bound.class).path("/api/bound").toOne().request(_ -> {});
+
+            if (! (lazy instanceof Some<Bound>(var lazyBound) && eager instanceof Some<Bound>(var eagerBound))) {
+                fail("Expected bound models, got %s and %s".formatted(lazy, eager));
+                return;
+            }
+            assertEquals("LazyList", lazyBound.nests().getClass().getSimpleName());
+            assertFalse("LazyList".equals(eagerBound.nests().getClass().getSimpleName()));
+            assertEquals(eagerBound, lazyBound);
+        }
+    }
+
+    @Test
+    public void stringsAreSharedPerMapper() {
+        var json = """
+            {"key":"blitz"}""";
+        var one = YayMapper.mapper();
+        var other = YayMapper.mapper();
+
+        var first = one.fromString(json, Nest.class).key();
+        assertTrue(first == one.fromString(json, Nest.class).key(), "Expected the same String instance from the same mapper");
+        assertFalse(first == other.fromString(json, Nest.class).key(), "Expected a String instance of each mapper");
+
+        var shared = new YayMapper.Config(false, false, new HashMap<>(), new HashMap<>(), true);
+        var sharedFirst = YayMapper.mapper(shared).fromString(json, Nest.class).key();
+        assertTrue(sharedFirst == YayMapper.mapper(shared).fromString(json, Nest.class).key(), "Expected the same String instance from the global cache");
+    }
+
+    @Test
+    public void constructorErrorsPropagate() {
+        assertEquals(null, mapper.fromString("""
+                    {"key":"exception"}""", Rejecting.class));
+        try {
+            mapper.fromString("""
+                    {"key":"error"}""", Rejecting.class);
+            fail("Expected the error of the constructor");
+        } catch (StackOverflowError expected) {}
+    }
+
+    public record Rejecting(String key) {
+        public Rejecting {
+            if (key.equals("exception")) throw new IllegalArgumentException("Rejected " + key);
+            if (key.equals("error")) throw new StackOverflowError("Rejected " + key);
+        }
+    }
+
+    public record Bound(String id, Top top, List<Nest> nests, Optional<Nest> opt, Optional<Nest> missing, Wrapper wrapper, Winner winner, int count) {}
+
     public record ZDT(String id, ZonedDateTime createdAt) {}
 
     public record Empty() {};
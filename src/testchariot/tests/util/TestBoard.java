@@ -295,6 +295,15 @@ public class TestBoard {
         assertTrue(! legal.equals(positionToTest), "Castling should be possible here");
     }
 
-
-
+    @Test
+    public void providersAreLookedUpOnce() {
+        var providers = BoardProvider.providers();
+        assertTrue(providers == BoardProvider.providers());
+        assertTrue(providers.containsKey("standard"));
+
+        BoardProvider.reload();
+        var reloaded = BoardProvider.providers();
+        assertTrue(providers != reloaded);
+        assertEquals(providers.keySet(), reloaded.keySet());
+    }
 }
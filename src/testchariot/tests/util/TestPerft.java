@@ -0,0 +1,29 @@
+package tests.util;
+
+import module java.base;
+import chariot.internal.chess.InternalBoardProvider;
+import util.Perft;
+import util.Test;
+
+import static util.Assert.*;
+
+public class TestPerft {
+
+    @Test
+    public void bitboardNodeCounts() {
+        assertNodeCounts(new Perft(InternalBoardProvider.provider()), 3);
+    }
+
+    @Test
+    public void naiveNodeCounts() {
+        // NaiveChess is slow, so keep the trees small
+        assertNodeCounts(new Perft(InternalBoardProvider.naive()), 2);
+    }
+
+    static void assertNodeCounts(Perft perft, int depth) {
+        for (var position : Perft.positions) {
+            var result = perft.run(position, Math.min(depth, position.maxDepth()));
+            assertEquals(result.expected(), result.nodes(), () -> result.toString());
+        }
+    }
+}
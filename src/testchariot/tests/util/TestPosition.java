@@ -0,0 +1,171 @@
+package tests.util;
+
+import module java.base;
+import module chariot;
+import util.Perft;
+import util.Test;
+
+import static util.Assert.*;
+
+public class TestPosition {
+
+    @Test
+    public void nodeCountsWithMakeAndUnmake() {
+        for (var position : Perft.positions) {
+            var result = Perft.runInPlace(position, Math.min(3, position.maxDepth()));
+            assertEquals(result.expected(), result.nodes(), () -> result.toString());
+        }
+    }
+
+    @Test
+    public void unmakeRestoresPosition() {
+        for (var reference : Perft.positions) {
+            Position position = Position.of(reference.variant(), reference.fen());
+            int[] moves = new int[Position.maxMoves];
+            int count = position.legalMoves(moves);
+            for (int i = 0; i < count; i++) {
+                String uci = position.toUCI(moves[i]);
+                position.makeMove(moves[i]);
+                String fenAfter = position.toFEN();
+                position.unmakeMove();
+                assertEquals(reference.fen(), position.toFEN(), () -> uci);
+                assertEquals(Board.ofVariantAndFEN(reference.variant(), reference.fen()).orElseThrow().play(uci).toFEN(), fenAfter, () -> uci);
+            }
+            assertEquals(0, position.plies());
+        }
+    }
+
+    @Test
+    public void replayMatchesBoard() {
+        assertReplayMatchesBoard("standard", FEN.standardStr,
+                "e4 d5 e5 f5 exf6 Nxf6 Nf3 e6 Be2 Be7 O-O O-O");
+        assertReplayMatchesBoard("chess960", "qnbbrnkr/pppppppp/8/8/8/8/PPPPPPPP/QNBBRNKR w EHeh - 0 1",
+                "e4 c6 e5 e6 d4 h6 d5 b5 dxe6 Nh7 exd7 g6 dxe8=Q+ Nf8 Qxd8 Bd7 Qxd7 Ne6 c3 O-O");
+    }
+
+    static void assertReplayMatchesBoard(String variant, String fen, String moves) {
+        Position position = Position.of(variant, fen);
+        Board board = Board.ofVariantAndFEN(variant, fen).orElseThrow();
+        for (String san : moves.split(" ")) {
+            int move = position.move(san);
+            if (move == Position.noMove) {
+                fail("No move " + san + " in " + position.toFEN());
+                return;
+            }
+            position.makeMove(move);
+            board = board.play(san);
+            assertEquals(board.toFEN(), position.toFEN(), () -> san);
+        }
+        assertEquals(Position.noMove, position.move("a1a1"));
+    }
+
+    @Test
+    public void unmakeWithoutMove() {
+        assertTrue(() -> {
+            try {
+                Position.ofStandard().unmakeMove();
+                return false;
+            } catch (IllegalStateException e) {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void makeInvalidMove() {
+        Position position = Position.ofStandard();
+        int opponentMove = Position.of("standard", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1").move("e7e5");
+        for (int move : new int[] { Position.noMove, position.move("e2e4") | 3 << 15, opponentMove }) {
+            try {
+                position.makeMove(move);
+                fail("Played invalid move " + move);
+            } catch (IllegalArgumentException e) {
+                assertEquals(FEN.standardStr, position.toFEN());
+                assertEquals(0, position.plies());
+            }
+        }
+    }
+
+    @Test
+    public void unsupportedVariant() {
+        assertTrue(() -> {
+            try {
+                Position.of("atomic", FEN.standardStr);
+                return false;
+            } catch (IllegalArgumentException e) {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void positionKeyIsKeptUpToDate() {
+        for (var reference : Perft.positions) {
+            Position position = Position.of(reference.variant(), reference.fen());
+            long initialKey = position.positionKey();
+            int[] moves = new int[Position.maxMoves];
+            int[] replies = new int[Position.maxMoves];
+            int count = position.legalMoves(moves);
+            for (int i = 0; i < count; i++) {
+                position.makeMove(moves[i]);
+                int replyCount = position.legalMoves(replies);
+                for (int j = 0; j < replyCount; j++) {
+                    position.makeMove(replies[j]);
+                    var fromScratch = Position.of(reference.variant(), position.toFEN());
+                    if (fromScratch.positionKey() != position.positionKey()) {
+                        fail("Key of %s differs from key of its FEN".formatted(position));
+                        return;
+                    }
+                    position.unmakeMove();
+                }
+                position.unmakeMove();
+            }
+            assertEquals(initialKey, position.positionKey());
+        }
+    }
+
+    @Test
+    public void positionKeyOfTransposition() {
+        Board start = Board.ofStandard();
+        Board knightsBack = start.play("Nf3 Nf6 Ng1 Ng8");
+        assertTrue(! start.toFEN().equals(knightsBack.toFEN()));
+        assertEquals(start.positionKey(), knightsBack.positionKey());
+
+        Board kingMovedBack = start.play("e4 e5 Ke2 Ke7 Ke1 Ke8");
+        assertTrue(kingMovedBack.positionKey() != start.play("e4 e5").positionKey(), "Castling rights differ");
+    }
+
+    @Test
+    public void positionKeyOfUnsupportedVariant() {
+        Board atomic = new Board() {
+            @Override public Board play(Move move)         { return this; }
+            @Override public String toSAN(Move move)        { return ""; }
+            @Override public String toUCI(Move move)        { return ""; }
+            @Override public String toFEN()                 { return FEN.standardStr; }
+            @Override public Collection<String> validMoves() { return List.of(); }
+            @Override public String variant()               { return "atomic"; }
+        };
+        assertTrue(() -> {
+            try {
+                atomic.positionKey();
+                return false;
+            } catch (UnsupportedOperationException e) {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void positionKeyOfEnPassant() {
+        // No black pawn can capture on e3, so the en passant square doesn't count
+        String withEp    = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+        String withoutEp = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1";
+        assertEquals(Board.fromFEN(withEp).positionKey(), Board.fromFEN(withoutEp).positionKey());
+
+        // The e5 pawn can capture on d6
+        String capturable   = "rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        String uncapturable = "rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3";
+        assertEquals(Board.fromFEN(capturable).positionKey(), Board.ofStandard().play("e4 a6 e5 d5").positionKey());
+        assertTrue(Board.fromFEN(capturable).positionKey() != Board.fromFEN(uncapturable).positionKey());
+    }
+}
@@ -0,0 +1,141 @@
+package util;
+
+import module java.base;
+import module chariot;
+
+import chariot.internal.chess.InternalBoardProvider;
+
+/// Counts the leaf nodes of the tree of legal moves from reference positions, to check the move generation
+/// of a [BoardProvider] against known counts and to measure how fast it is.
+///
+/// The counts are from the [perft results](https://www.chessprogramming.org/Perft_Results) of the Chess Programming Wiki.
+/// Run as a benchmark with
+/// ```
+/// java --enable-preview --add-exports chariot/chariot.internal.chess=testchariot -p out/modules -m testchariot/util.Perft [depth]
+/// ```
+public record Perft(BoardProvider provider) {
+
+    /// A position and its node counts, from depth 1 and up
+    public record Reference(String name, String variant, String fen, List<Long> nodes) {
+        public int maxDepth() { return nodes.size(); }
+    }
+
+    public record Result(Reference position, int depth, long nodes, Duration elapsed) {
+        public long expected() { return position.nodes().get(depth - 1); }
+
+        public long nodesPerSecond() {
+            long nanos = Math.max(1, elapsed.toNanos());
+            return (long) (nodes * 1e9 / nanos);
+        }
+
+        @Override
+        public String toString() {
+            return "%-12s depth %d: %,12d nodes in %6d ms, %,12d nodes/s%s".formatted(
+                    position.name(), depth, nodes, elapsed.toMillis(), nodesPerSecond(),
+                    nodes == expected() ? "" : " - expected %,d".formatted(expected()));
+        }
+    }
+
+    public static final List<Reference> positions = List.of(
+            new Reference("start", "standard",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                List.of(20L, 400L, 8_902L, 197_281L, 4_865_609L)),
+            new Reference("kiwipete", "standard",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                List.of(48L, 2_039L, 97_862L, 4_085_603L)),
+            // en passant captures which would expose the king along the rank
+            new Reference("en passant", "standard",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                List.of(14L, 191L, 2_812L, 43_238L, 674_624L)),
+            new Reference("promotions", "standard",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                List.of(6L, 264L, 9_467L, 422_333L)),
+            new Reference("underpromote", "standard",
+                "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+                List.of(24L, 496L, 9_483L, 182_838L, 3_605_103L)),
+            new Reference("middlegame", "standard",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                List.of(44L, 1_486L, 62_379L, 2_103_487L)),
+            new Reference("chess960 1", "chess960",
+                "bqnb1rkr/pp3ppp/3ppn2/2p5/5P2/P2P4/NPP1P1PP/BQ1BNRKR w HFhf - 2 9",
+                List.of(21L, 528L, 12_189L, 326_672L)),
+            new Reference("chess960 2", "chess960",
+                "2nnrbkr/p1qppppp/8/1ppb4/6PP/3PP3/PPP2P2/BQNNRBKR w HEhe - 1 9",
+                List.of(21L, 807L, 18_002L, 667_366L)),
+            new Reference("chess960 3", "chess960",
+                "b1q1rrkb/pppppppp/3nn3/8/P7/1PPP4/4PPPP/BQNNRKRB w GE - 1 9",
+                List.of(20L, 479L, 10_471L, 273_318L))
+            );
+
+    public Result run(Reference position, int depth) {
+        Board board = provider.fromFEN(position.variant(), position.fen());
+        long start = System.nanoTime();
+        long nodes = nodes(board, depth);
+        return new Result(position, depth, nodes, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /// Runs the position with make and unmake of a mutable [Position], instead of with the provider
+    public static Result runInPlace(Reference position, int depth) {
+        var inPlace = Position.of(position.variant(), position.fen());
+        long start = System.nanoTime();
+        long nodes = nodes(inPlace, depth, new int[Math.max(1, depth)][Position.maxMoves]);
+        return new Result(position, depth, nodes, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    static long nodes(Position position, int depth, int[][] moves) {
+        if (depth == 0) return 1;
+        int[] list = moves[depth - 1];
+        int count = position.legalMoves(list);
+        if (depth == 1) return count;
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(list[i]);
+            nodes += nodes(position, depth - 1, moves);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    public static long nodes(Board board, int depth) {
+        if (depth == 0) return 1;
+        Collection<String> moves = board.validMoves();
+        // The moves of the last ply are only counted, not played
+        if (depth == 1) return moves.size();
+        long nodes = 0;
+        for (String move : moves) {
+            nodes += nodes(board.play(Move.wrap(move)), depth - 1);
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        var providers = new LinkedHashMap<String, BoardProvider>();
+        BoardProvider.providers().values().stream()
+            .filter(provider -> ! (provider instanceof InternalBoardProvider))
+            .forEach(provider -> providers.putIfAbsent(provider.getClass().getName(), provider));
+        providers.put("bitboard", InternalBoardProvider.provider());
+        providers.put("naive", InternalBoardProvider.naive());
+
+        providers.forEach((name, provider) -> {
+            var perft = new Perft(provider);
+            report(name, depth, position -> provider.supports(position.variant()), perft::run);
+        });
+        report("make/unmake", depth, _ -> true, Perft::runInPlace);
+    }
+
+    static void report(String name, int depth, Predicate<Reference> filter, BiFunction<Reference, Integer, Result> run) {
+        IO.println(name);
+        long nodes = 0;
+        long nanos = 0;
+        for (var position : positions) {
+            if (! filter.test(position)) continue;
+            var result = run.apply(position, Math.min(depth, position.maxDepth()));
+            IO.println(result);
+            nodes += result.nodes();
+            nanos += result.elapsed().toNanos();
+        }
+        IO.println("%-12s %,12d nodes in %6d ms%n".formatted("total", nodes, nanos / 1_000_000));
+    }
+}
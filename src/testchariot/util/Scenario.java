@@ -21,6 +21,14 @@ public sealed interface Scenario {
                 List.of(timeout(Duration.ofSeconds(2))));
     }
 
+    static Scenario sequence(List<Script> scripts) {
+        return new SScenario(List.copyOf(scripts), List.of(timeout(Duration.ofSeconds(2))));
+    }
+
+    static Script script(List<RequestProperty> req, List<ResponseProperty> res) {
+        return new Script(List.copyOf(req), List.copyOf(res));
+    }
+
     static SLogging logging(Consumer<String> log) { return new SLogging(log); }
     static SPath path(String path) { return new SPath(path); }
     static SBody body(String body) { return body(body.getBytes()); }
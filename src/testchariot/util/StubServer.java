@@ -197,11 +197,13 @@ public class StubServer implements AutoCloseable {
                             .map(entry -> "%-20s: %s".formatted("["+entry.getKey()+"]", "["+entry.getValue()+"]"))
                             .sorted()
                             .toList()),
-                        responseBody == null
+                        responseBody != null
+                            ? new String(responseBody)
+                            : responseBodies != null
                             ? responseBodies.stream()
                                 .map(String::new)
                                 .collect(Collectors.joining())
-                            : new String(responseBody)));
+                            : ""));
 
             exchange.getResponseHeaders().putAll(responseHeaders);
 
@@ -227,6 +229,7 @@ public class StubServer implements AutoCloseable {
         exchange.sendResponseHeaders(status, body.length);
         exchange.getResponseBody().write(body);
         exchange.getResponseBody().flush();
+        exchange.close();
     }
 
     void respond(HttpExchange exchange, int status) throws IOException {